@@ -1,163 +1,141 @@
 package backend.academy.generators;
 
-import backend.academy.mazes.Cell;
 import backend.academy.mazes.Coordinate;
-import backend.academy.mazes.Edge;
+import backend.academy.mazes.HeapMazeStorage;
 import backend.academy.mazes.Maze;
+import backend.academy.mazes.MazeOrigin;
+import backend.academy.mazes.MazeStorage;
 import backend.academy.mazes.MutableMazeDTO;
-import java.security.SecureRandom;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
 
 /**
  * Implementation of a {@link Generator} interface.
  * This class define functionality for generator's algorithms.
+ * Every maze is generated from its own seed, that is taken from {@link RandomSource} of generator,
+ * so maze can be generated again by {@link #generate(MazeStorage, long)} with seed from {@link Maze#origin()}.
+ * Types of cells are filled by {@link Terrain} of generator before algorithm starts,
+ * algorithm generates perfect maze and cycles are added after it by {@link Braid} of generator.
+ * Random source of maze is created for every call and passed to algorithm,
+ * buffers of algorithms are taken from {@link ScratchArena}, so generator keeps no state
+ * and can be shared by threads.
  */
 public abstract class AbstractGenerator implements Generator {
 
-    private static final int FLOOR_BOUND = 1;
-
-    private static final int CEIL_BOUND = 100;
+    protected final boolean isCycleAllowed;
 
-    private static final double PROBABILITY = 0.07;
+    protected final Terrain terrain;
 
-    protected final SecureRandom secureRandom;
+    protected final Braid braid;
 
-    protected final boolean isCycleAllowed;
+    private final RandomSource seeds;
 
     /**
      * Constructor for creating instance of generator.
      *
-     * @param isCycleAllowed boolean flag,
-     *                       that define can we have cycle in maze or not
+     * @param braid   braid stage, that adds cycles to generated perfect maze
+     * @param seeds   source of seeds for generated mazes
+     * @param terrain terrain stage, that fills types of cells
      */
-    protected AbstractGenerator(final boolean isCycleAllowed) {
-        this.secureRandom = new SecureRandom();
-        this.isCycleAllowed = isCycleAllowed;
+    protected AbstractGenerator(Braid braid, RandomSource seeds, Terrain terrain) {
+        this.isCycleAllowed = braid.isCycleAllowed();
+        this.braid = braid;
+        this.seeds = seeds;
+        this.terrain = terrain;
     }
 
     /**
-     * Method for generating type of {@link Cell} with it's {@link Coordinate}
-     *
-     * @param grid  a maze where cell is located
-     * @param cords coordinates of cell.
+     * {@inheritDoc}
      */
-    protected void addRandomCellIfNecessary(Cell[][] grid, Coordinate cords) {
-        int row = cords.row();
-        int col = cords.col();
-        if (grid[row][col] != null) {
-            return;
-        }
-        int bound = Cell.Type.length();
-        Cell.Type type = Cell.Type.values()[secureRandom.nextInt(1, bound)];
-        grid[row][col] = new Cell(cords, type);
+    @Override
+    public Maze generate(int height, int width) {
+        return generate(new HeapMazeStorage(height, width));
     }
 
     /**
-     * Method that determines with some probability
-     * whether to delete a wall or not in the maze.
-     *
-     * @param mutableDTO mutable structure of maze.
-     * @param start      coordinate of cell behind wall
-     * @param end        coordinate of cell behind other wall's side
+     * {@inheritDoc}
      */
-    protected void addAccordingToProbability(MutableMazeDTO mutableDTO, Coordinate start, Coordinate end) {
-        if (isCycleAllowed && (1.0 > PROBABILITY * (secureRandom.nextInt(FLOOR_BOUND, CEIL_BOUND)))) {
-            addEdges(mutableDTO, start, end);
-        }
+    @Override
+    public Maze generate(MazeStorage storage) {
+        return generate(storage, nextSeed());
     }
 
     /**
-     * Method that deleted wall between to cells.
-     * Also create edge (path) between them in {@code both} way.
-     *
-     * @param mutableDTO mutable structure of maze.
-     * @param fromCell   coordinate of cell behind wall
-     * @param toCell     coordinate of cell behind other wall's side
-     * @see #addOrientedEdge(Map, Cell, Cell)
+     * {@inheritDoc}
      */
-    protected void addEdges(MutableMazeDTO mutableDTO, Coordinate fromCell, Coordinate toCell) {
-        Cell cell1 = mutableDTO.getCell(fromCell);
-        Cell cell2 = mutableDTO.getCell(toCell);
-        addOrientedEdge(mutableDTO.mazeGraph(), cell1, cell2);
-        addOrientedEdge(mutableDTO.mazeGraph(), cell2, cell1);
+    @Override
+    public Maze generate(MazeStorage storage, long seed) {
+        MutableMazeDTO mutableDTO = new MutableMazeDTO(storage);
+        terrain.fill(mutableDTO, seed);
+        generate(mutableDTO, RandomSource.seeded(seed));
+        braid.apply(mutableDTO, seed);
+        return mutableDTO.toMaze(origin(seed));
     }
 
     /**
-     * Method that deleted wall between to cells.
-     * Also create edge (path) between them in {@code one} way.
+     * Generate passages of perfect maze by algorithm of generator.
+     * All random decisions are taken from {@code random}.
      *
-     * @param mazeGraph graph of all path between cells in maze.
-     * @param fromCell  coordinate of cell behind wall
-     * @param toCell    coordinate of cell behind other wall's side
-     * @see #addEdges(MutableMazeDTO, Coordinate, Coordinate)
+     * @param mutableDTO DTO over storage, where types of cells are already filled
+     * @param random     random source of maze
      */
-    protected void addOrientedEdge(Map<Cell, List<Cell>> mazeGraph, Cell fromCell, Cell toCell) {
-        List<Cell> adj = mazeGraph.computeIfAbsent(fromCell, k -> new ArrayList<>());
-        if (!adj.contains(toCell)) {
-            adj.add(toCell);
-        }
+    protected abstract void generate(MutableMazeDTO mutableDTO, RandomSource random);
+
+    /**
+     * Generate passages of perfect maze by algorithm of generator from given seed,
+     * without terrain, braid and {@link Maze}.
+     * Used by generators, that join mazes of this generator.
+     *
+     * @param mutableDTO DTO over storage, where passages are carved
+     * @param seed       seed of maze
+     */
+    void carve(MutableMazeDTO mutableDTO, long seed) {
+        generate(mutableDTO, RandomSource.seeded(seed));
     }
 
     /**
-     * Add wall between two cell in maze.
+     * Take seed for next maze from source of generator.
+     * Source is shared by threads, so access to it is synchronized.
      *
-     * @param grid  grid of our mutable maze DTO
-     * @param walls list of walls in maze
-     * @param edge  edge that represent wall.
-     * @see Cell
-     * @see MutableMazeDTO
-     * @see Maze
-     * @see #addNearWalls(Cell[][], List, Coordinate)
+     * @return seed of maze
      */
-    protected void addWall(
-        Cell[][] grid,
-        List<Edge> walls,
-        Edge edge
-    ) {
-        if (edge.to().row() < 0 || edge.to().row() >= grid.length || edge.to().col() < 0
-            || edge.to().col() >= grid[0].length
-        ) {
-            return;
+    protected long nextSeed() {
+        synchronized (seeds) {
+            return seeds.nextLong();
         }
-        walls.add(edge);
     }
 
     /**
-     * Method for base maze initialization
-     * before generation by algorithm.
+     * Information about this generator, that is saved in generated maze.
      *
-     * @param mutableDTO mutable maze structure that need to be init.
+     * @param seed seed of generated maze
+     * @return origin of maze, generated by this generator
      */
-    protected void initMutableMazeDTO(MutableMazeDTO mutableDTO) {
-        for (int row = 0; row < mutableDTO.height(); row++) {
-            for (int col = 0; col < mutableDTO.width(); col++) {
-                addRandomCellIfNecessary(mutableDTO.grid(), new Coordinate(row, col));
-            }
-        }
+    protected MazeOrigin origin(long seed) {
+        return new MazeOrigin(getClass().getSimpleName(), seed, isCycleAllowed);
     }
 
     /**
-     * Add walls around cell.
-     * Cell is represented by it's {@link Coordinate}.
+     * Method that deleted wall between to cells.
+     * Passage between them can be walked in {@code both} way.
+     * Fingerprint of maze is updated by DTO, so it is ready when generation ends.
      *
-     * @param grid  field of mutable maze DTO, where we need to add walls.
-     * @param walls list of walls in maze
-     * @param from  (X, Y)'s coordinate of cell in maze
-     * @see MutableMazeDTO
-     * @see Maze
-     * @see #addWall(Cell[][], List, Edge)
+     * @param mutableDTO mutable structure of maze.
+     * @param fromCell   coordinate of cell behind wall
+     * @param toCell     coordinate of cell behind other wall's side
+     * @see MutableMazeDTO#addPassage(Coordinate, Coordinate)
      */
-    protected void addNearWalls(
-        Cell[][] grid,
-        List<Edge> walls,
-        Coordinate from
-    ) {
-        addWall(grid, walls, new Edge(from, new Coordinate(from.row() - 1, from.col())));
-        addWall(grid, walls, new Edge(from, new Coordinate(from.row() + 1, from.col())));
-        addWall(grid, walls, new Edge(from, new Coordinate(from.row(), from.col() + 1)));
-        addWall(grid, walls, new Edge(from, new Coordinate(from.row(), from.col() - 1)));
+    protected void addEdges(MutableMazeDTO mutableDTO, Coordinate fromCell, Coordinate toCell) {
+        mutableDTO.addPassage(fromCell, toCell);
     }
 
+    /**
+     * Method that deleted wall between to cells.
+     *
+     * @param mutableDTO mutable structure of maze.
+     * @param fromCell   index of cell behind wall
+     * @param toCell     index of cell behind other wall's side
+     * @see #addEdges(MutableMazeDTO, Coordinate, Coordinate)
+     */
+    protected void addEdges(MutableMazeDTO mutableDTO, int fromCell, int toCell) {
+        mutableDTO.addPassage(fromCell, toCell);
+    }
 }
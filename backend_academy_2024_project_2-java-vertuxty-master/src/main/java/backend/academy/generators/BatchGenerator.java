@@ -0,0 +1,123 @@
+package backend.academy.generators;
+
+import backend.academy.mazes.Maze;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.ObjIntConsumer;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Utility class for generating many mazes concurrently on virtual threads.
+ * Seed of every maze depends only on base seed and index of maze,
+ * and generators keep no state, so mazes don't depend on scheduling.
+ * Count of mazes, that are generated but not consumed yet, is limited,
+ * so batch of any size needs memory only for few mazes.
+ */
+@UtilityClass
+public class BatchGenerator {
+
+    private static final int TASKS_PER_PROCESSOR = 2;
+
+    /**
+     * Generate batch of mazes.
+     *
+     * @param generatorType   type of generator
+     * @param isCyclesAllowed can mazes have cycles or not
+     * @param count           count of mazes
+     * @param height          height of mazes
+     * @param width           width of mazes
+     * @param seedBase        seed, that defines seeds of all mazes
+     * @return mazes, ordered by index
+     */
+    public List<Maze> generateBatch(
+        GeneratorFactory.GeneratorType generatorType,
+        boolean isCyclesAllowed,
+        int count,
+        int height,
+        int width,
+        long seedBase
+    ) {
+        Maze[] mazes = new Maze[count];
+        generateBatch(generatorType, isCyclesAllowed, count, height, width, seedBase, (maze, index) -> {
+            mazes[index] = maze;
+        });
+        return Arrays.asList(mazes);
+    }
+
+    /**
+     * Generate batch of mazes and pass every maze to consumer as soon as it is generated.
+     * Consumer is called in calling thread, order of calls depends on scheduling,
+     * but maze with given index is always the same.
+     *
+     * @param generatorType   type of generator
+     * @param isCyclesAllowed can mazes have cycles or not
+     * @param count           count of mazes
+     * @param height          height of mazes
+     * @param width           width of mazes
+     * @param seedBase        seed, that defines seeds of all mazes
+     * @param consumer        receiver of maze and its index
+     * @throws IllegalStateException if generation of some maze failed
+     *                               or thread is interrupted while waiting for mazes
+     */
+    public void generateBatch(
+        GeneratorFactory.GeneratorType generatorType,
+        boolean isCyclesAllowed,
+        int count,
+        int height,
+        int width,
+        long seedBase,
+        ObjIntConsumer<Maze> consumer
+    ) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count of mazes must not be negative: " + count);
+        }
+        RandomSource seedSource = RandomSource.seeded(seedBase);
+        long[] seeds = new long[count];
+        for (int index = 0; index < count; index++) {
+            seeds[index] = seedSource.nextLong();
+        }
+        Generator generator = GeneratorFactory.createGenerator(generatorType, isCyclesAllowed, seedSource.split());
+        int window = Runtime.getRuntime().availableProcessors() * TASKS_PER_PROCESSOR;
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            CompletionService<Generated> completion = new ExecutorCompletionService<>(executor);
+            int submitted = 0;
+            for (; submitted < Math.min(window, count); submitted++) {
+                submit(completion, generator, height, width, seeds, submitted);
+            }
+            for (int done = 0; done < count; done++) {
+                Generated generated = completion.take().get();
+                if (submitted < count) {
+                    submit(completion, generator, height, width, seeds, submitted++);
+                }
+                consumer.accept(generated.maze(), generated.index());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch generation is interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Maze generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void submit(
+        CompletionService<Generated> completion,
+        Generator generator,
+        int height,
+        int width,
+        long[] seeds,
+        int index
+    ) {
+        completion.submit(() -> new Generated(index, generator.generate(height, width, seeds[index])));
+    }
+
+    private record Generated(int index, Maze maze) {
+    }
+}
@@ -0,0 +1,45 @@
+package backend.academy.generators;
+
+import backend.academy.mazes.MutableMazeDTO;
+
+/**
+ * Class implementation of {@link AbstractGenerator}.
+ * Generate maze using Binary Tree algorithm:
+ * every cell opens passage either to north or to east neighbour.
+ * Algorithm needs no additional memory and is the fastest one,
+ * but maze has long corridors along north and east borders.
+ */
+public class BinaryTreeGenerator extends AbstractGenerator {
+
+    /**
+     * Protected constructor for creating instance of BinaryTreeGenerator.
+     *
+     * @see GeneratorFactory
+     */
+    protected BinaryTreeGenerator(Braid braid, RandomSource seeds, Terrain terrain) {
+        super(braid, seeds, terrain);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void generate(MutableMazeDTO mutableDTO, RandomSource random) {
+        int height = mutableDTO.height();
+        int width = mutableDTO.width();
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                int index = mutableDTO.index(row, col);
+                boolean canNorth = row > 0;
+                boolean canEast = col + 1 < width;
+                if (canNorth && canEast) {
+                    addEdges(mutableDTO, index, random.nextBoolean() ? index - width : index + 1);
+                } else if (canNorth) {
+                    addEdges(mutableDTO, index, index - width);
+                } else if (canEast) {
+                    addEdges(mutableDTO, index, index + 1);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package backend.academy.generators;
+
+import backend.academy.mazes.MutableMazeDTO;
+
+/**
+ * Braid stage of maze generation, that adds cycles to perfect maze after generation algorithm.
+ * Stage is one sweep over cells in row-major order: every cell decides only about its own
+ * east and south walls, so stage works in the same way after any algorithm
+ * and can be applied to maze, that is generated row by row.
+ * Random decisions are taken from source, derived from seed of maze,
+ * so they don't depend on count of random numbers, that algorithm has taken.
+ * Braid is immutable, so it can be shared by threads.
+ */
+public final class Braid {
+
+    /**
+     * Share of closed walls, that are opened by {@link #of(boolean)} with cycles.
+     * It is close to share of walls, that were opened by generators before braid stage.
+     */
+    public static final double DEFAULT_LOOP_RATIO = 0.14;
+
+    private static final int PROBABILITY_BITS = 24;
+
+    private static final int PROBABILITY_RESOLUTION = 1 << PROBABILITY_BITS;
+
+    private static final long SALT = 0xB5AD_4ECE_DA1C_E2A9L;
+
+    private static final Braid NONE = new Braid(Mode.NONE, 0);
+
+    private static final Braid DEFAULT = new Braid(Mode.LOOPS, DEFAULT_LOOP_RATIO);
+
+    private final Mode mode;
+
+    private final double ratio;
+
+    private Braid(Mode mode, double ratio) {
+        this.mode = mode;
+        this.ratio = ratio;
+    }
+
+    /**
+     * Braid, that keeps maze perfect.
+     *
+     * @return braid without cycles
+     */
+    public static Braid none() {
+        return NONE;
+    }
+
+    /**
+     * Default braid for flag of cycles.
+     *
+     * @param isCycleAllowed can maze have cycles or not
+     * @return {@link #loops(double)} with {@link #DEFAULT_LOOP_RATIO} or {@link #none()}
+     */
+    public static Braid of(boolean isCycleAllowed) {
+        return isCycleAllowed ? DEFAULT : NONE;
+    }
+
+    /**
+     * Braid, that opens given share of walls, that are closed in perfect maze.
+     * Walls are chosen by selection sampling, so count of opened walls is exactly
+     * {@code round(ratio * (height - 1) * (width - 1))}.
+     *
+     * @param ratio share of closed walls, from {@code 0} to {@code 1}
+     * @return braid with loops
+     * @throws IllegalArgumentException if ratio is out of range
+     */
+    public static Braid loops(double ratio) {
+        return new Braid(Mode.LOOPS, checkRatio(ratio));
+    }
+
+    /**
+     * Braid, that removes dead ends: every dead end is joined with given probability
+     * to neighbour to the east or to the south. Dead ends, which walls to the east and to the south
+     * are already open or are borders of maze, are kept.
+     *
+     * @param ratio probability to remove dead end, from {@code 0} to {@code 1}
+     * @return braid without some dead ends
+     * @throws IllegalArgumentException if ratio is out of range
+     */
+    public static Braid deadEnds(double ratio) {
+        return new Braid(Mode.DEAD_ENDS, checkRatio(ratio));
+    }
+
+    private static double checkRatio(double ratio) {
+        if (!(ratio >= 0 && ratio <= 1)) {
+            throw new IllegalArgumentException("Ratio must be from 0 to 1: " + ratio);
+        }
+        return ratio;
+    }
+
+    /**
+     * Checks if braid can add cycles.
+     *
+     * @return {@code true} if braid opens walls
+     */
+    public boolean isCycleAllowed() {
+        return mode != Mode.NONE && ratio > 0;
+    }
+
+    /**
+     * Apply braid to generated perfect maze.
+     *
+     * @param mutableDTO mutable structure of maze
+     * @param seed       seed of maze
+     */
+    void apply(MutableMazeDTO mutableDTO, long seed) {
+        if (!isCycleAllowed()) {
+            return;
+        }
+        int height = mutableDTO.height();
+        int width = mutableDTO.width();
+        Rows rows = rows(seed, height, width);
+        boolean[] east = new boolean[width];
+        boolean[] south = new boolean[width];
+        for (int row = 0; row < height; row++) {
+            int first = row * width;
+            for (int col = 0; col < width; col++) {
+                east[col] = col + 1 < width && mutableDTO.hasPassage(first + col, first + col + 1);
+                south[col] = row + 1 < height && mutableDTO.hasPassage(first + col, first + col + width);
+            }
+            rows.apply(row, east, south);
+            for (int col = 0; col < width; col++) {
+                if (east[col]) {
+                    mutableDTO.addPassage(first + col, first + col + 1);
+                }
+                if (south[col]) {
+                    mutableDTO.addPassage(first + col, first + col + width);
+                }
+            }
+        }
+    }
+
+    /**
+     * Create braid of rows, that can be used for one maze in one thread.
+     *
+     * @param seed   seed of maze
+     * @param height height of maze
+     * @param width  width of maze
+     * @return braid of rows
+     */
+    Rows rows(long seed, int height, int width) {
+        return new Rows(RandomSource.seeded(seed ^ SALT), height, width);
+    }
+
+    /**
+     * Kind of braid.
+     */
+    private enum Mode {
+        NONE,
+        LOOPS,
+        DEAD_ENDS
+    }
+
+    /**
+     * Braid, that is applied to rows of maze in order.
+     */
+    final class Rows {
+
+        private final RandomSource random;
+
+        private final int height;
+
+        private final int width;
+
+        private final boolean[] north;
+
+        private final int threshold;
+
+        private int closedLeft;
+
+        private int toOpen;
+
+        private Rows(RandomSource random, int height, int width) {
+            this.random = random;
+            this.height = height;
+            this.width = width;
+            this.north = new boolean[width];
+            this.threshold = (int) Math.round(ratio * PROBABILITY_RESOLUTION);
+            this.closedLeft = (height - 1) * (width - 1);
+            this.toOpen = (int) Math.round(ratio * closedLeft);
+        }
+
+        /**
+         * Open walls of row. Passages of row must be final, except walls, that are opened by braid.
+         *
+         * @param row   index of row, rows must be applied in order
+         * @param east  passages to the east, opened walls are set to {@code true}
+         * @param south passages to the south, opened walls are set to {@code true}
+         */
+        void apply(int row, boolean[] east, boolean[] south) {
+            switch (mode) {
+                case LOOPS -> openLoops(row, east, south);
+                case DEAD_ENDS -> removeDeadEnds(row, east, south);
+                default -> {
+                }
+            }
+            System.arraycopy(south, 0, north, 0, width);
+        }
+
+        private void openLoops(int row, boolean[] east, boolean[] south) {
+            for (int col = 0; col < width; col++) {
+                if (col + 1 < width && !east[col]) {
+                    east[col] = select();
+                }
+                if (row + 1 < height && !south[col]) {
+                    south[col] = select();
+                }
+            }
+        }
+
+        /**
+         * Selection sampling: closed wall is opened with probability {@code toOpen / closedLeft}.
+         */
+        private boolean select() {
+            if (closedLeft <= 0) {
+                return false;
+            }
+            boolean selected = random.nextInt(closedLeft) < toOpen;
+            closedLeft--;
+            if (selected) {
+                toOpen--;
+            }
+            return selected;
+        }
+
+        private void removeDeadEnds(int row, boolean[] east, boolean[] south) {
+            for (int col = 0; col < width; col++) {
+                boolean canEast = col + 1 < width && !east[col];
+                boolean canSouth = row + 1 < height && !south[col];
+                if (!(canEast || canSouth) || degree(row, col, east, south) != 1
+                    || random.nextInt(PROBABILITY_RESOLUTION) >= threshold) {
+                    continue;
+                }
+                if (canEast && (!canSouth || random.nextBoolean())) {
+                    east[col] = true;
+                } else {
+                    south[col] = true;
+                }
+            }
+        }
+
+        private int degree(int row, int col, boolean[] east, boolean[] south) {
+            int degree = 0;
+            if (row > 0 && north[col]) {
+                degree++;
+            }
+            if (col > 0 && east[col - 1]) {
+                degree++;
+            }
+            if (east[col]) {
+                degree++;
+            }
+            if (south[col]) {
+                degree++;
+            }
+            return degree;
+        }
+    }
+}
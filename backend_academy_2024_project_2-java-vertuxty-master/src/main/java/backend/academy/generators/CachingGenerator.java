@@ -0,0 +1,88 @@
+package backend.academy.generators;
+
+import backend.academy.mazes.Maze;
+import backend.academy.mazes.MazeStorage;
+
+/**
+ * Implementation of a {@link Generator} interface, that takes mazes from {@link MazeCache}.
+ * Mazes are cached by type of generator, seed, size and cycles flag,
+ * so one cache can be shared by generators of different types.
+ * Missing mazes are generated by delegate generator of the same type.
+ * Mazes, generated into given storage, are not cached, because storage is given by caller.
+ */
+public class CachingGenerator implements Generator {
+
+    private final GeneratorFactory.GeneratorType type;
+
+    private final boolean isCycleAllowed;
+
+    private final RandomSource seeds;
+
+    private final MazeCache cache;
+
+    private final Generator delegate;
+
+    /**
+     * Protected constructor for creating instance of CachingGenerator.
+     *
+     * @param type           type of generator
+     * @param isCycleAllowed can maze have cycles or not
+     * @param seeds          source of seeds for generated mazes
+     * @param cache          cache of mazes
+     * @param delegate       generator of given type, that is used for mazes without cache
+     * @see GeneratorFactory
+     */
+    protected CachingGenerator(
+        GeneratorFactory.GeneratorType type,
+        boolean isCycleAllowed,
+        RandomSource seeds,
+        MazeCache cache,
+        Generator delegate
+    ) {
+        this.type = type;
+        this.isCycleAllowed = isCycleAllowed;
+        this.seeds = seeds;
+        this.cache = cache;
+        this.delegate = delegate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Maze generate(int height, int width) {
+        long seed;
+        synchronized (seeds) {
+            seed = seeds.nextLong();
+        }
+        return generate(height, width, seed);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Maze generate(int height, int width, long seed) {
+        return cache.get(new MazeCache.Key(type, seed, height, width, isCycleAllowed), delegate);
+    }
+
+    /**
+     * Generate maze without cache.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public Maze generate(MazeStorage storage) {
+        return delegate.generate(storage);
+    }
+
+    /**
+     * Generate maze without cache.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public Maze generate(MazeStorage storage, long seed) {
+        return delegate.generate(storage, seed);
+    }
+}
@@ -0,0 +1,112 @@
+package backend.academy.generators;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free disjoint-set-union structure, that can be shared by several threads.
+ * Parents are kept in {@link AtomicIntegerArray}, roots are linked by CAS,
+ * {@link #getRep(int)} shortens paths by halving and never blocks.
+ * Roots are linked by fixed pseudo-random priority of elements,
+ * so trees have logarithmic expected height without ranks.
+ *
+ * @see DisjointSetUnion
+ */
+public class ConcurrentDisjointSetUnion {
+
+    private static final int MIX_1 = 0x85EBCA6B;
+
+    private static final int MIX_2 = 0xC2B2AE35;
+
+    private static final int SHIFT_1 = 16;
+
+    private static final int SHIFT_2 = 13;
+
+    private final AtomicIntegerArray parent;
+
+    /**
+     * Create instance of DSU.
+     *
+     * @param size count of elements in DSU
+     */
+    public ConcurrentDisjointSetUnion(int size) {
+        this.parent = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    /**
+     * Gets representative of given element.
+     * Representative can change, if other thread unions set of element at the same time.
+     *
+     * @param v element in DSU
+     * @return representative of it's element
+     */
+    public int getRep(int v) {
+        int current = v;
+        while (true) {
+            int p = parent.get(current);
+            if (p == current) {
+                return current;
+            }
+            int grandParent = parent.get(p);
+            if (p != grandParent) {
+                parent.compareAndSet(current, p, grandParent);
+            }
+            current = grandParent;
+        }
+    }
+
+    /**
+     * Union two sets.
+     *
+     * @param x element in first set
+     * @param y element in second set
+     * @return {@code true} if sets were different and this call joined them
+     */
+    public boolean union(int x, int y) {
+        while (true) {
+            int repX = getRep(x);
+            int repY = getRep(y);
+            if (repX == repY) {
+                return false;
+            }
+            if (priority(repX) > priority(repY)) {
+                int rep = repX;
+                repX = repY;
+                repY = rep;
+            }
+            if (parent.compareAndSet(repX, repX, repY)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Checks if two elements are in the same set.
+     * Result is exact, if no other thread unions their sets at the same time.
+     *
+     * @param x first element
+     * @param y second element
+     * @return {@code true} if elements are in the same set
+     */
+    public boolean isSameSet(int x, int y) {
+        while (true) {
+            int repX = getRep(x);
+            int repY = getRep(y);
+            if (repX == repY) {
+                return true;
+            }
+            if (parent.get(repX) == repX) {
+                return false;
+            }
+        }
+    }
+
+    private static int priority(int v) {
+        int h = v;
+        h = (h ^ (h >>> SHIFT_1)) * MIX_1;
+        h = (h ^ (h >>> SHIFT_2)) * MIX_2;
+        return h ^ (h >>> SHIFT_1);
+    }
+}
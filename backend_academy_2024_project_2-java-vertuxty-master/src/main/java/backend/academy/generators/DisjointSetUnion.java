@@ -1,9 +1,12 @@
 package backend.academy.generators;
 
+import java.util.Arrays;
+
 /**
  * Class that define disjoint-set-union structure.
  * Using in maze's generator algorithms to define
- * if path between to cell exist
+ * if path between to cell exist.
+ * Structure is not thread-safe, see {@link ConcurrentDisjointSetUnion}.
  * */
 public class DisjointSetUnion {
 
@@ -15,11 +18,23 @@ public class DisjointSetUnion {
      * @param size maz count of elements in DSU
      * */
     public DisjointSetUnion(int size) { // height * width
-        this.parent = new int[size + 1];
-        this.rank = new int[size + 1];
+        this(new int[size + 1], new int[size + 1], size);
+    }
+
+    /**
+     * Create instance of DSU over given arrays, so arrays can be reused.
+     * First {@code size + 1} elements of arrays are overwritten.
+     * @param parent array for parents, its length must be at least {@code size + 1}
+     * @param rank array for ranks, its length must be at least {@code size + 1}
+     * @param size max count of elements in DSU
+     * */
+    DisjointSetUnion(int[] parent, int[] rank, int size) {
+        this.parent = parent;
+        this.rank = rank;
         for (int i = 0; i < size + 1; i++) {
             parent[i] = i;
         }
+        Arrays.fill(rank, 0, size + 1, 0);
     }
 
     /**
@@ -28,11 +43,16 @@ public class DisjointSetUnion {
      * @return representative of it's element
      * */
     public int getRep(int v) {
-        if (v == parent[v]) {
-            return v;
+        int rep = v;
+        while (rep != parent[rep]) {
+            rep = parent[rep];
+        }
+        int current = v;
+        while (current != rep) {
+            int next = parent[current];
+            parent[current] = rep;
+            current = next;
         }
-        int rep = getRep(parent[v]);
-        parent[v] = rep;
         return rep;
     }
 
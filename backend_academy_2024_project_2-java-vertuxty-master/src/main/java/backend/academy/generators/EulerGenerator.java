@@ -1,114 +1,250 @@
 package backend.academy.generators;
 
-import backend.academy.mazes.Coordinate;
-import backend.academy.mazes.Maze;
+import backend.academy.mazes.Cell;
 import backend.academy.mazes.MutableMazeDTO;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.Arrays;
 
 /**
  * Class implementation of {@link AbstractGenerator}.
  * Generate maze using Euler's algorithm.
+ * Only sets of cells in current row are kept: set label for every column, union-find over labels
+ * and linked list of columns for every set, so memory is O(width) and does not depend on height,
+ * and every row takes O(width) time up to inverse Ackermann function.
+ * Maze can be generated row by row into {@link RowSink}, see {@link StreamingGenerator}.
  */
-public class EulerGenerator extends AbstractGenerator {
+public class EulerGenerator extends AbstractGenerator implements StreamingGenerator {
+
+    private static final int NO_SET = -1;
 
     /**
      * Protected constructor for creating instance of EulerGenerator.
      *
      * @see GeneratorFactory
      */
-    protected EulerGenerator(boolean isCycleAllowed) {
-        super(isCycleAllowed);
+    protected EulerGenerator(Braid braid, RandomSource seeds, Terrain terrain) {
+        super(braid, seeds, terrain);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void generate(MutableMazeDTO mutableDTO, RandomSource random) {
+        int width = mutableDTO.width();
+        generateRows(mutableDTO.height(), width, random, null, (row, types, east, south) -> {
+            int first = row * width;
+            for (int col = 0; col < width; col++) {
+                if (east[col]) {
+                    addEdges(mutableDTO, first + col, first + col + 1);
+                }
+                if (south[col]) {
+                    addEdges(mutableDTO, first + col, first + col + width);
+                }
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void generate(int height, int width, RowSink sink) {
+        generate(height, width, nextSeed(), sink);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Maze generate(int height, int width) {
-        MutableMazeDTO mutableDTO = new MutableMazeDTO(height, width);
-        initMutableMazeDTO(mutableDTO);
-        DisjointSetUnion disjointSetUnion = new DisjointSetUnion(height * width + 1);
-
-        Set<Integer> usedRepresentative = new HashSet<>();
-        List<Integer> bottomRowNextRepresentatives = new ArrayList<>();
-
-        for (int row = 0; row < height - 1; row++) {
-            generateRowStructure(mutableDTO, disjointSetUnion, row);
-            usedRepresentative.clear();
-            generateWaysToBottomRow(
-                mutableDTO,
-                disjointSetUnion,
-                usedRepresentative,
-                bottomRowNextRepresentatives,
-                row
-            );
+    public void generate(int height, int width, long seed, RowSink sink) {
+        if (height <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Maze size must be positive: " + height + "x" + width);
         }
-        int row = height - 1;
-        for (int col = 0; col < width - 1; col++) {
-            if (disjointSetUnion.getRep(row * width + col) != disjointSetUnion.getRep(row * width + col + 1)) {
-                disjointSetUnion.union(row * width + col, disjointSetUnion.getRep(row * width + col + 1));
-                addEdges(mutableDTO, new Coordinate(row, col), new Coordinate(row, col + 1));
+        Braid.Rows braidRows = braid.rows(seed, height, width);
+        generateRows(height, width, RandomSource.seeded(seed), terrain.rows(seed, width), (row, types, east, south) -> {
+            braidRows.apply(row, east, south);
+            sink.accept(row, types, east, south);
+        });
+    }
+
+    /**
+     * Generate rows of maze one by one.
+     *
+     * @param terrainRows terrain of rows or {@code null}, if types of cells are already filled
+     */
+    private void generateRows(
+        int height,
+        int width,
+        RandomSource random,
+        Terrain.Rows terrainRows,
+        RowSink sink
+    ) {
+        RowSets sets = new RowSets(width);
+        Cell.Type[] types = new Cell.Type[width];
+        boolean[] east = new boolean[width];
+        boolean[] south = new boolean[width];
+        for (int row = 0; row < height; row++) {
+            boolean last = row == height - 1;
+            if (terrainRows != null) {
+                terrainRows.fill(row, types);
             }
+            Arrays.fill(east, false);
+            Arrays.fill(south, false);
+            sets.assignNewSets();
+            generateRowStructure(sets, random, east, last);
+            sets.resolve();
+            if (!last) {
+                generateWaysToBottomRow(sets, random, south);
+                sets.keepOnly(south);
+            }
+            sink.accept(row, types, east, south);
         }
-        return new Maze(mutableDTO);
+    }
 
+    private void generateRowStructure(RowSets sets, RandomSource random, boolean[] east, boolean last) {
+        for (int col = 0; col + 1 < east.length; col++) {
+            if (sets.setOf(col) != sets.setOf(col + 1)) {
+                if (last || random.nextBoolean()) {
+                    east[col] = true;
+                    sets.merge(sets.setOf(col), sets.setOf(col + 1));
+                }
+            }
+        }
     }
 
-    private void generateWaysToBottomRow(
-        MutableMazeDTO mutableDTO,
-        DisjointSetUnion disjointSetUnion,
-        Set<Integer> usedRepresentative,
-        List<Integer> bottomRowNextRepresentatives,
-        int currentRow
-    ) {
-        int width = mutableDTO.grid()[0].length;
-        for (int col = 0; col < width; col++) {
-            if (usedRepresentative.contains(disjointSetUnion.getRep(currentRow * width + col))
-                && secureRandom.nextBoolean()) {
+    private static void generateWaysToBottomRow(RowSets sets, RandomSource random, boolean[] south) {
+        for (int set = 0; set < south.length; set++) {
+            int size = sets.size(set);
+            if (size == 0) {
                 continue;
             }
-            int countOfWaysToBottomRow = 1;
-            bottomRowNextRepresentatives.clear();
-            for (int colNear = 0; colNear < width; colNear++) {
-                if (disjointSetUnion.getRep(currentRow * width + col)
-                    == disjointSetUnion.getRep(currentRow * width + colNear) && colNear != col) {
-                    ++countOfWaysToBottomRow;
-                    bottomRowNextRepresentatives.add(colNear);
+            int forced = random.nextInt(size);
+            int position = 0;
+            for (int col = sets.first(set); col != NO_SET; col = sets.next(col)) {
+                if (position == forced || random.nextBoolean()) {
+                    south[col] = true;
                 }
+                position++;
             }
-            if (countOfWaysToBottomRow == 1) {
-                addEdges(mutableDTO, new Coordinate(currentRow, col), new Coordinate(currentRow + 1, col));
-                disjointSetUnion.union(currentRow * width + col, (currentRow + 1) * width + col);
-            } else {
-                usedRepresentative.add(disjointSetUnion.getRep(currentRow * width + col));
-                int currCol =
-                    bottomRowNextRepresentatives.remove(secureRandom.nextInt(bottomRowNextRepresentatives.size()));
-                if (disjointSetUnion.getRep(currentRow * width + currCol)
-                    != disjointSetUnion.getRep((currentRow + 1) * width + currCol)) {
-                    disjointSetUnion.union(currentRow * width + currCol,
-                        (currentRow + 1) * width + currCol);
-                    addEdges(mutableDTO, new Coordinate(currentRow, currCol), new Coordinate(currentRow + 1, currCol));
+        }
+    }
+
+    /**
+     * Sets of cells in one row.
+     * Labels of sets are from {@code 0} to {@code width - 1}.
+     * Sets are merged in union-find over labels, members of every set are kept in linked list,
+     * that is rebuilt by {@link #resolve()} with one linear pass.
+     */
+    @SuppressFBWarnings(value = "PL_PARALLEL_LISTS", justification = "Primitive arrays keep memory O(width)")
+    private static final class RowSets {
+
+        private final int[] labels;
+
+        private final int[] parent;
+
+        private final int[] head;
+
+        private final int[] next;
+
+        private final int[] sizes;
+
+        private final int[] free;
+
+        RowSets(int width) {
+            this.labels = new int[width];
+            this.parent = new int[width];
+            this.head = new int[width];
+            this.next = new int[width];
+            this.sizes = new int[width];
+            this.free = new int[width];
+            Arrays.fill(labels, NO_SET);
+        }
+
+        int setOf(int col) {
+            int root = labels[col];
+            while (parent[root] != root) {
+                parent[root] = parent[parent[root]];
+                root = parent[root];
+            }
+            return root;
+        }
+
+        int size(int set) {
+            return sizes[set];
+        }
+
+        int first(int set) {
+            return head[set];
+        }
+
+        int next(int col) {
+            return next[col];
+        }
+
+        /**
+         * Put every cell without set into new set.
+         */
+        void assignNewSets() {
+            int width = labels.length;
+            Arrays.fill(sizes, 0);
+            for (int col = 0; col < width; col++) {
+                if (labels[col] != NO_SET) {
+                    sizes[labels[col]]++;
+                }
+            }
+            int freeCount = 0;
+            for (int set = 0; set < width; set++) {
+                parent[set] = set;
+                if (sizes[set] == 0) {
+                    free[freeCount++] = set;
+                }
+            }
+            for (int col = 0; col < width; col++) {
+                if (labels[col] == NO_SET) {
+                    labels[col] = free[--freeCount];
+                    sizes[labels[col]] = 1;
                 }
             }
         }
-    }
 
-    private void generateRowStructure(MutableMazeDTO mutableDTO, DisjointSetUnion disjointSetUnion, int row) {
-        int width = mutableDTO.grid()[0].length;
-        for (int col = 0; col < width - 1; col++) {
-            Coordinate cellCord = mutableDTO.getCell(row, col).coordinate();
-            Coordinate nearCellCord = mutableDTO.getCell(row, col + 1).coordinate();
-            if (disjointSetUnion.getRep(row * width + col + 1)
-                != disjointSetUnion.getRep(row * width + col)) {
-                if (secureRandom.nextBoolean()) {
-                    addEdges(mutableDTO, cellCord, nearCellCord);
-                    disjointSetUnion.union(row * width + col, row * width + col + 1);
+        /**
+         * Merge two sets, smaller set is attached to larger one.
+         *
+         * @param first  label of first set, returned by {@link #setOf(int)}
+         * @param second label of second set, returned by {@link #setOf(int)}
+         */
+        void merge(int first, int second) {
+            int target = sizes[first] >= sizes[second] ? first : second;
+            int source = target == first ? second : first;
+            parent[source] = target;
+            sizes[target] += sizes[source];
+            sizes[source] = 0;
+        }
+
+        /**
+         * Replace label of every cell by label of its set and rebuild lists of members.
+         */
+        void resolve() {
+            int width = labels.length;
+            Arrays.fill(head, NO_SET);
+            for (int col = width - 1; col >= 0; col--) {
+                labels[col] = setOf(col);
+                next[col] = head[labels[col]];
+                head[labels[col]] = col;
+            }
+        }
+
+        /**
+         * Remove from sets cells, that have no passage to next row.
+         *
+         * @param south passages to next row
+         */
+        void keepOnly(boolean[] south) {
+            for (int col = 0; col < labels.length; col++) {
+                if (!south[col]) {
+                    labels[col] = NO_SET;
                 }
-            } else {
-                addAccordingToProbability(mutableDTO, cellCord, nearCellCord);
             }
         }
     }
@@ -1,6 +1,8 @@
 package backend.academy.generators;
 
+import backend.academy.mazes.HeapMazeStorage;
 import backend.academy.mazes.Maze;
+import backend.academy.mazes.MazeStorage;
 
 /**
  * A interface for implementing maze's generators.
@@ -17,4 +19,40 @@ public interface Generator {
      * @return random generated {@link Maze}
      * */
     Maze generate(int height, int width);
+
+    /**
+     * Generate random maze into given {@code storage}.
+     * Size of maze is defined by storage, storage is used by generated maze without copying.
+     *
+     * @param storage empty storage, where cells and passages are written
+     *
+     * @return random generated {@link Maze}
+     * @see backend.academy.mazes.SegmentMazeStorage
+     * */
+    Maze generate(MazeStorage storage);
+
+    /**
+     * Generate maze into given {@code storage} from given seed.
+     * Generator of same type and with same cycles flag always generates equal mazes from equal seeds.
+     *
+     * @param storage empty storage, where cells and passages are written
+     * @param seed    seed of maze, it is saved in {@link Maze#origin()}
+     *
+     * @return generated {@link Maze}
+     * */
+    Maze generate(MazeStorage storage, long seed);
+
+    /**
+     * Generate maze by {@code height} and {@code width} from given seed.
+     *
+     * @param height a height of a maze
+     * @param width a width of a maze
+     * @param seed seed of maze, it is saved in {@link Maze#origin()}
+     *
+     * @return generated {@link Maze}
+     * @see #generate(MazeStorage, long)
+     * */
+    default Maze generate(int height, int width, long seed) {
+        return generate(new HeapMazeStorage(height, width), seed);
+    }
 }
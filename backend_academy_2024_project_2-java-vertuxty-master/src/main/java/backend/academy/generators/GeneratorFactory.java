@@ -1,6 +1,6 @@
 package backend.academy.generators;
 
-import com.google.common.base.Function;
+import java.util.concurrent.ForkJoinPool;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.UtilityClass;
 
@@ -35,9 +35,45 @@ public class GeneratorFactory {
          *
          * @see PrimeGenerator
          */
-        PRIME_BY_WALL(PrimeGenerator::new);
+        PRIME_BY_WALL(PrimeGenerator::new),
+        /**
+         * Binary Tree algorithm
+         *
+         * @see BinaryTreeGenerator
+         */
+        BINARY_TREE(BinaryTreeGenerator::new),
+        /**
+         * Sidewinder algorithm
+         *
+         * @see SidewinderGenerator
+         */
+        SIDEWINDER(SidewinderGenerator::new),
+        /**
+         * Wilson's algorithm
+         *
+         * @see WilsonGenerator
+         */
+        WILSON(WilsonGenerator::new),
+        /**
+         * Growing Tree algorithm, that takes newest or random cell
+         *
+         * @see GrowingTreeGenerator
+         * @see #createGrowingTreeGenerator(GrowingTreeGenerator.Strategy, boolean, RandomSource)
+         */
+        GROWING_TREE(GrowingTreeGenerator::new);
+
+        private final Constructor constructor;
 
-        private final Function<Boolean, Generator> constructor;
+        /**
+         * Create generator of this type with default terrain and braid.
+         *
+         * @param isCyclesAllowed can maze have cycles or not
+         * @param random          source of seeds for generated mazes
+         * @return instance of a {@link Generator}
+         */
+        Generator create(boolean isCyclesAllowed, RandomSource random) {
+            return constructor.create(Braid.of(isCyclesAllowed), random, Terrain.uniform());
+        }
     }
 
     /**
@@ -48,11 +84,190 @@ public class GeneratorFactory {
      * @see GeneratorType
      */
     public Generator createGenerator(GeneratorType generatorType, boolean isCyclesAllowed) {
-        Function<Boolean, Generator> generatorConstructor = generatorType.constructor;
+        return createGenerator(generatorType, isCyclesAllowed, RandomSource.create());
+    }
+
+    /**
+     * Method for creating generator of specified type with given source of randomness.
+     * Generators, created with sources with equal seeds, generate equal sequences of mazes.
+     *
+     * @param generatorType a identifier of generator type
+     * @param random        source of seeds for generated mazes
+     * @return instance of a {@link Generator}
+     * @see GeneratorType
+     */
+    public Generator createGenerator(GeneratorType generatorType, boolean isCyclesAllowed, RandomSource random) {
+        return createGenerator(generatorType, isCyclesAllowed, random, Terrain.uniform());
+    }
+
+    /**
+     * Method for creating generator of specified type with given terrain.
+     *
+     * @param generatorType a identifier of generator type
+     * @param random        source of seeds for generated mazes
+     * @param terrain       terrain stage, that fills types of cells
+     * @return instance of a {@link Generator}
+     * @see Terrain#noise(java.util.Map, int)
+     */
+    public Generator createGenerator(
+        GeneratorType generatorType,
+        boolean isCyclesAllowed,
+        RandomSource random,
+        Terrain terrain
+    ) {
+        return createGenerator(generatorType, random, terrain, Braid.of(isCyclesAllowed));
+    }
+
+    /**
+     * Method for creating generator of specified type with given terrain and braid.
+     *
+     * @param generatorType a identifier of generator type
+     * @param random        source of seeds for generated mazes
+     * @param terrain       terrain stage, that fills types of cells
+     * @param braid         braid stage, that adds cycles to generated perfect maze
+     * @return instance of a {@link Generator}
+     * @see Braid#loops(double)
+     * @see Braid#deadEnds(double)
+     */
+    public Generator createGenerator(GeneratorType generatorType, RandomSource random, Terrain terrain, Braid braid) {
+        Constructor generatorConstructor = generatorType.constructor;
         if (generatorConstructor != null) {
-            return generatorConstructor.apply(isCyclesAllowed);
+            return generatorConstructor.create(braid, random, terrain);
         } else {
             throw new IllegalArgumentException("No generator with name " + generatorType);
         }
     }
+
+    /**
+     * Method for creating Growing Tree generator with given strategy.
+     *
+     * @param strategy        way to take cell from list of active cells
+     * @param isCyclesAllowed can maze have cycles or not
+     * @param random          source of seeds for generated mazes
+     * @return instance of {@link GrowingTreeGenerator}
+     */
+    public Generator createGrowingTreeGenerator(
+        GrowingTreeGenerator.Strategy strategy,
+        boolean isCyclesAllowed,
+        RandomSource random
+    ) {
+        return new GrowingTreeGenerator(Braid.of(isCyclesAllowed), random, Terrain.uniform(), strategy);
+    }
+
+    /**
+     * Method for creating generator, that emits maze row by row.
+     *
+     * @param isCyclesAllowed can maze have cycles or not
+     * @param random          source of seeds for generated mazes
+     * @return instance of {@link StreamingGenerator}, based on Euler's algorithm
+     * @see EulerGenerator
+     */
+    public StreamingGenerator createStreamingGenerator(boolean isCyclesAllowed, RandomSource random) {
+        return createStreamingGenerator(isCyclesAllowed, random, Terrain.uniform());
+    }
+
+    /**
+     * Method for creating generator, that emits maze row by row, with given terrain.
+     *
+     * @param isCyclesAllowed can maze have cycles or not
+     * @param random          source of seeds for generated mazes
+     * @param terrain         terrain stage, that fills types of cells
+     * @return instance of {@link StreamingGenerator}, based on Euler's algorithm
+     */
+    public StreamingGenerator createStreamingGenerator(boolean isCyclesAllowed, RandomSource random, Terrain terrain) {
+        return new EulerGenerator(Braid.of(isCyclesAllowed), random, terrain);
+    }
+
+    /**
+     * Method for creating generator, that takes mazes from cache.
+     *
+     * @param generatorType   type of generator
+     * @param isCyclesAllowed can maze have cycles or not
+     * @param random          source of seeds for generated mazes
+     * @param cache           cache of mazes, it can be shared by generators
+     * @return instance of {@link CachingGenerator}
+     */
+    public Generator createCachingGenerator(
+        GeneratorType generatorType,
+        boolean isCyclesAllowed,
+        RandomSource random,
+        MazeCache cache
+    ) {
+        Generator delegate = createGenerator(generatorType, isCyclesAllowed, random.split());
+        return new CachingGenerator(generatorType, isCyclesAllowed, random, cache, delegate);
+    }
+
+    /**
+     * Method for creating generator, that generates tiles of maze concurrently
+     * in {@link ForkJoinPool#commonPool()}.
+     *
+     * @param tileType        type of generator for tiles
+     * @param isCyclesAllowed can maze have cycles or not
+     * @param random          source of seeds for generated mazes
+     * @return instance of {@link ParallelTiledGenerator}
+     */
+    public Generator createParallelGenerator(GeneratorType tileType, boolean isCyclesAllowed, RandomSource random) {
+        return createParallelGenerator(
+            tileType, isCyclesAllowed, random, ParallelTiledGenerator.DEFAULT_TILE_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Method for creating generator, that generates tiles of maze concurrently.
+     *
+     * @param tileType        type of generator for tiles
+     * @param isCyclesAllowed can maze have cycles or not
+     * @param random          source of seeds for generated mazes
+     * @param tileSize        size of side of tile
+     * @param pool            pool, where tiles are generated
+     * @return instance of {@link ParallelTiledGenerator}
+     * @throws IllegalArgumentException if tile size is not positive
+     */
+    public Generator createParallelGenerator(
+        GeneratorType tileType,
+        boolean isCyclesAllowed,
+        RandomSource random,
+        int tileSize,
+        ForkJoinPool pool
+    ) {
+        return createParallelGenerator(tileType, isCyclesAllowed, random, Terrain.uniform(), tileSize, pool);
+    }
+
+    /**
+     * Method for creating generator, that generates tiles of maze concurrently, with given terrain.
+     * Terrain is filled for whole maze, so it is continuous over borders of tiles.
+     *
+     * @param tileType        type of generator for tiles
+     * @param isCyclesAllowed can maze have cycles or not
+     * @param random          source of seeds for generated mazes
+     * @param terrain         terrain stage, that fills types of cells
+     * @param tileSize        size of side of tile
+     * @param pool            pool, where tiles are generated
+     * @return instance of {@link ParallelTiledGenerator}
+     * @throws IllegalArgumentException if tile size is not positive
+     */
+    public Generator createParallelGenerator(
+        GeneratorType tileType,
+        boolean isCyclesAllowed,
+        RandomSource random,
+        Terrain terrain,
+        int tileSize,
+        ForkJoinPool pool
+    ) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Tile size must be positive: " + tileSize);
+        }
+        // only algorithm of tile generator carves tiles from explicit seeds,
+        // its source, terrain and braid are not used
+        AbstractGenerator tileGenerator =
+            tileType.constructor.create(Braid.none(), RandomSource.create(), Terrain.uniform());
+        return new ParallelTiledGenerator(Braid.of(isCyclesAllowed), random, terrain, tileGenerator, tileSize, pool);
+    }
+
+    /**
+     * Constructor of generator.
+     */
+    @FunctionalInterface
+    private interface Constructor {
+        AbstractGenerator create(Braid braid, RandomSource random, Terrain terrain);
+    }
 }
@@ -0,0 +1,137 @@
+package backend.academy.generators;
+
+import backend.academy.mazes.MutableMazeDTO;
+import java.util.BitSet;
+
+/**
+ * Class implementation of {@link AbstractGenerator}.
+ * Generate maze using Growing Tree algorithm: take cell from list of active cells,
+ * open passage to its random unvisited neighbour and add neighbour to list,
+ * remove cell from list, when it has no unvisited neighbours.
+ * Way to take cell is defined by {@link Strategy}.
+ * Active cells are kept in explicit {@code int[]} stack, so there is no recursion,
+ * stack and visited cells are kept in {@link ScratchArena}.
+ */
+public class GrowingTreeGenerator extends AbstractGenerator {
+
+    private static final int DIRECTIONS = 4;
+
+    private final Strategy strategy;
+
+    /**
+     * Way to take cell from list of active cells.
+     */
+    public enum Strategy {
+        /**
+         * Newest cell, maze is the same as by recursive backtracker with long corridors.
+         */
+        NEWEST,
+        /**
+         * Random cell, maze is similar to maze by Prim's algorithm.
+         */
+        RANDOM,
+        /**
+         * Newest or random cell with equal probability.
+         */
+        MIX
+    }
+
+    /**
+     * Protected constructor for creating instance of GrowingTreeGenerator with {@link Strategy#MIX}.
+     *
+     * @see GeneratorFactory
+     */
+    protected GrowingTreeGenerator(Braid braid, RandomSource seeds, Terrain terrain) {
+        this(braid, seeds, terrain, Strategy.MIX);
+    }
+
+    /**
+     * Protected constructor for creating instance of GrowingTreeGenerator.
+     *
+     * @param strategy way to take cell from list of active cells
+     * @see GeneratorFactory
+     */
+    protected GrowingTreeGenerator(Braid braid, RandomSource seeds, Terrain terrain, Strategy strategy) {
+        super(braid, seeds, terrain);
+        this.strategy = strategy;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void generate(MutableMazeDTO mutableDTO, RandomSource random) {
+        try (ScratchArena arena = ScratchArena.acquire()) {
+            int size = mutableDTO.height() * mutableDTO.width();
+            grow(mutableDTO, random, arena.ints(size), arena.bits(size));
+        }
+    }
+
+    private void grow(MutableMazeDTO mutableDTO, RandomSource random, int[] active, BitSet visited) {
+        int height = mutableDTO.height();
+        int width = mutableDTO.width();
+        int size = height * width;
+        int[] neighbours = new int[DIRECTIONS];
+        int start = random.nextInt(size);
+        visited.set(start);
+        active[0] = start;
+        int count = 1;
+        while (count > 0) {
+            int position = choose(random, count);
+            int cell = active[position];
+            int found = unvisitedNeighbours(cell, height, width, visited, neighbours);
+            if (found == 0) {
+                remove(active, position, count--);
+                continue;
+            }
+            int next = neighbours[random.nextInt(found)];
+            visited.set(next);
+            addEdges(mutableDTO, cell, next);
+            active[count++] = next;
+        }
+    }
+
+    /**
+     * Remove cell from list of active cells.
+     * Order of cells matters only for strategies, that take newest cell,
+     * so for random strategy last cell is moved into place of removed one,
+     * otherwise cells after removed one are shifted.
+     */
+    private void remove(int[] active, int position, int count) {
+        if (position == count - 1) {
+            return;
+        }
+        if (strategy == Strategy.RANDOM) {
+            active[position] = active[count - 1];
+        } else {
+            System.arraycopy(active, position + 1, active, position, count - 1 - position);
+        }
+    }
+
+    private int choose(RandomSource random, int count) {
+        return switch (strategy) {
+            case NEWEST -> count - 1;
+            case RANDOM -> random.nextInt(count);
+            case MIX -> random.nextBoolean() ? count - 1 : random.nextInt(count);
+        };
+    }
+
+    private static int unvisitedNeighbours(int cell, int height, int width, BitSet visited, int[] neighbours) {
+        int row = cell / width;
+        int col = cell % width;
+        int found = 0;
+        if (row > 0 && !visited.get(cell - width)) {
+            neighbours[found++] = cell - width;
+        }
+        if (row + 1 < height && !visited.get(cell + width)) {
+            neighbours[found++] = cell + width;
+        }
+        if (col + 1 < width && !visited.get(cell + 1)) {
+            neighbours[found++] = cell + 1;
+        }
+        if (col > 0 && !visited.get(cell - 1)) {
+            neighbours[found++] = cell - 1;
+        }
+        return found;
+    }
+}
@@ -1,75 +1,76 @@
 package backend.academy.generators;
 
-import backend.academy.mazes.Coordinate;
-import backend.academy.mazes.Edge;
-import backend.academy.mazes.Maze;
 import backend.academy.mazes.MutableMazeDTO;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Class implementation of {@link AbstractGenerator}.
  * Generate maze using Kruskal's algorithm.
+ * Every inner wall is stored once as {@code int} id: {@code 2 * index} for wall to the east of cell
+ * and {@code 2 * index + 1} for wall to the south of cell.
+ * Ids are shuffled once and walls are processed in one pass with {@link DisjointSetUnion},
+ * so generation takes O(E α(E)) time. Ids and DSU are kept in {@link ScratchArena},
+ * so repeated generation allocates almost nothing.
  */
 public class KruskalGenerator extends AbstractGenerator {
 
-    /**
-     * Variable of edges using for kruskal's algorithm correct work.
-     */
-    private final List<Edge> edges;
-
     /**
      * Protected constructor for creating instance of KruskalGenerator.
      *
      * @see GeneratorFactory
      */
-    protected KruskalGenerator(final boolean isCycleAllowed) {
-        super(isCycleAllowed);
-        edges = new ArrayList<>();
+    protected KruskalGenerator(Braid braid, RandomSource seeds, Terrain terrain) {
+        super(braid, seeds, terrain);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    protected void initMutableMazeDTO(MutableMazeDTO mutableDTO) {
-        for (int row = 0; row < mutableDTO.height(); row++) {
-            for (int col = 0; col < mutableDTO.width(); col++) {
-                Coordinate cellCord = new Coordinate(row, col);
-                addRandomCellIfNecessary(mutableDTO.grid(), cellCord);
-                addNearWalls(mutableDTO.grid(), edges, cellCord);
+    protected void generate(MutableMazeDTO mutableDTO, RandomSource random) {
+        int height = mutableDTO.height();
+        int width = mutableDTO.width();
+
+        try (ScratchArena arena = ScratchArena.acquire()) {
+            int[] walls = arena.ints(
+                Math.addExact(Math.multiplyExact(width - 1, height), Math.multiplyExact(height - 1, width)));
+            int count = walls(walls, height, width);
+            shuffle(walls, count, random);
+            // система непересекающихся множеств
+            DisjointSetUnion disjointSetUnion = arena.disjointSetUnion(height * width);
+
+            for (int i = 0; i < count; i++) {
+                int from = walls[i] >>> 1;
+                int to = (walls[i] & 1) == 0 ? from + 1 : from + width;
+                if (disjointSetUnion.getRep(from) != disjointSetUnion.getRep(to)) {
+                    disjointSetUnion.union(from, to);
+                    addEdges(mutableDTO, from, to);
+                }
             }
         }
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public Maze generate(int height, int width) {
-
-        MutableMazeDTO mutableDTO = new MutableMazeDTO(height, width);
-
-        initMutableMazeDTO(mutableDTO);
-
-        DisjointSetUnion disjointSetUnion = new DisjointSetUnion(height * width); // система непересекающихся множеств
-
-        while (!edges.isEmpty()) {
-            int randomEdgeIndex = secureRandom.nextInt(edges.size());
-            Edge edge = edges.remove(randomEdgeIndex);
-            edges.remove(new Edge(edge.to(), edge.from()));
-            Coordinate from = edge.from();
-            Coordinate to = edge.to();
-            int repFrom = from.col() + from.row() * width;
-            int repTo = to.col() + to.row() * width;
-
-            if (disjointSetUnion.getRep(repFrom) != disjointSetUnion.getRep(repTo)) {
-                disjointSetUnion.union(repFrom, repTo);
-                addEdges(mutableDTO, from, to);
-            } else {
-                addAccordingToProbability(mutableDTO, from, to);
+    private static int walls(int[] walls, int height, int width) {
+        int count = 0;
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                int index = row * width + col;
+                if (col + 1 < width) {
+                    walls[count++] = 2 * index;
+                }
+                if (row + 1 < height) {
+                    walls[count++] = 2 * index + 1;
+                }
             }
         }
-        return new Maze(mutableDTO);
+        return count;
+    }
+
+    private static void shuffle(int[] walls, int count, RandomSource random) {
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int wall = walls[i];
+            walls[i] = walls[j];
+            walls[j] = wall;
+        }
     }
 }
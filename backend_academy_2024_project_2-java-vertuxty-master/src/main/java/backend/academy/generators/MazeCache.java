@@ -0,0 +1,175 @@
+package backend.academy.generators;
+
+import backend.academy.mazes.Maze;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Cache of generated mazes, keyed by parameters of generation.
+ * Generators keep no state and generate equal mazes from equal seeds,
+ * so maze can be taken from cache instead of generating it again.
+ * Cache is bounded by estimated size of mazes in bytes and evicts entries by W-TinyLFU policy of Caffeine,
+ * so mazes, that are requested often, stay in cache, even if many other mazes are requested once.
+ * Mazes are generated asynchronously in executor of cache, concurrent requests of one maze wait for one generation.
+ *
+ * @see CachingGenerator
+ */
+public final class MazeCache {
+
+    private static final int MAZE_OVERHEAD = 256;
+
+    private static final int BITS_PER_WORD = Long.SIZE;
+
+    /**
+     * Cached {@link backend.academy.mazes.Cell} with its coordinate and reference in row,
+     * without compressed pointers.
+     */
+    private static final int CELL_BYTES = 64;
+
+    /**
+     * Array of cached row and its reference.
+     */
+    private static final int ROW_OVERHEAD = 24;
+
+    /**
+     * Offset of cell and at most four targets and four weights of edges in adjacency.
+     */
+    private static final int ADJACENCY_BYTES = Integer.BYTES + 4 * Integer.BYTES + 4 * Byte.BYTES;
+
+    private final AsyncLoadingCache<Key, Maze> cache;
+
+    private MazeCache(AsyncLoadingCache<Key, Maze> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Create cache, where mazes are generated in {@link ForkJoinPool#commonPool()}.
+     *
+     * @param maximumBytes maximum estimated size of cached mazes in bytes
+     * @return new cache
+     * @throws IllegalArgumentException if maximum size is negative
+     */
+    public static MazeCache create(long maximumBytes) {
+        return create(maximumBytes, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create cache.
+     *
+     * @param maximumBytes      maximum estimated size of cached mazes in bytes
+     * @param refreshAfterWrite time, after which maze is generated again in background on next request,
+     *                          while old maze is returned, {@code null} for no refresh
+     * @param executor          executor, where mazes are generated
+     * @return new cache
+     * @throws IllegalArgumentException if maximum size is negative or refresh time is not positive
+     */
+    public static MazeCache create(long maximumBytes, Duration refreshAfterWrite, Executor executor) {
+        if (maximumBytes < 0) {
+            throw new IllegalArgumentException("Maximum size of cache must not be negative: " + maximumBytes);
+        }
+        Caffeine<Key, Maze> builder = Caffeine.newBuilder()
+            .executor(executor)
+            .maximumWeight(maximumBytes)
+            .weigher((Key key, Maze maze) -> key.estimatedBytes())
+            .recordStats();
+        if (refreshAfterWrite != null) {
+            if (refreshAfterWrite.isNegative() || refreshAfterWrite.isZero()) {
+                throw new IllegalArgumentException("Refresh time must be positive: " + refreshAfterWrite);
+            }
+            builder.refreshAfterWrite(refreshAfterWrite);
+        }
+        return new MazeCache(builder.buildAsync(MazeCache::generate));
+    }
+
+    /**
+     * Loader for {@link #get(Key)} and refreshes of cache.
+     * Key has no terrain and braid, so maze is generated by generator of its type with default ones,
+     * the same generator is created by {@link GeneratorFactory#createCachingGenerator} for its mazes.
+     */
+    private static Maze generate(Key key) {
+        return key.type().create(key.cyclesAllowed(), RandomSource.create())
+            .generate(key.height(), key.width(), key.seed());
+    }
+
+    /**
+     * Get maze from cache or generate it.
+     *
+     * @param key parameters of maze
+     * @return maze, equal to maze, generated by generator of given type from given seed
+     */
+    public Maze get(Key key) {
+        return cache.synchronous().get(key);
+    }
+
+    /**
+     * Get maze from cache or generate it by given generator.
+     *
+     * @param key       parameters of maze
+     * @param generator generator of type of key with default terrain and braid
+     * @return maze, equal to maze, generated by generator of given type from given seed
+     */
+    public Maze get(Key key, Generator generator) {
+        return cache.get(key, k -> generator.generate(k.height(), k.width(), k.seed())).join();
+    }
+
+    /**
+     * Get maze from cache or start its generation.
+     *
+     * @param key parameters of maze
+     * @return future of maze
+     */
+    public CompletableFuture<Maze> getAsync(Key key) {
+        return cache.get(key);
+    }
+
+    /**
+     * Gets statistics of cache: hits, misses, generations and evictions.
+     *
+     * @return snapshot of statistics
+     */
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    /**
+     * Gets estimated size of cached mazes in bytes.
+     * Pending evictions are performed before.
+     *
+     * @return sum of estimated sizes of mazes
+     */
+    public long estimatedBytes() {
+        cache.synchronous().cleanUp();
+        return cache.synchronous().policy().eviction().orElseThrow().weightedSize().orElseThrow();
+    }
+
+    /**
+     * Parameters of generation, that define maze.
+     *
+     * @param type          type of generator
+     * @param seed          seed of maze
+     * @param height        height of maze
+     * @param width         width of maze
+     * @param cyclesAllowed can maze have cycles or not
+     */
+    public record Key(GeneratorFactory.GeneratorType type, long seed, int height, int width, boolean cyclesAllowed) {
+
+        /**
+         * Estimate size of maze on heap in the worst case: byte of type and two bits of passages for every cell
+         * and caches, that shared maze builds on first use: cells by rows and adjacency of cells.
+         *
+         * @return estimated size in bytes, at most {@link Integer#MAX_VALUE}
+         */
+        int estimatedBytes() {
+            long cells = (long) height * width;
+            long storage = cells + (2 * cells + BITS_PER_WORD - 1) / BITS_PER_WORD * Long.BYTES;
+            long rows = cells * CELL_BYTES + (long) height * ROW_OVERHEAD;
+            long adjacency = cells * ADJACENCY_BYTES + Integer.BYTES;
+            return (int) Math.min(storage + rows + adjacency + MAZE_OVERHEAD, Integer.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package backend.academy.generators;
+
+/**
+ * Bulk operations over rows of noise, used by {@link Terrain}.
+ * Every implementation must return bit-identical results,
+ * so terrain of maze doesn't depend on hardware.
+ */
+interface NoiseKernel {
+
+    /**
+     * Add interpolated octave to accumulated noise:
+     * {@code acc[i] += amplitude * (lo[i] + t[i] * (hi[i] - lo[i]))}.
+     *
+     * @param acc       accumulated noise
+     * @param lo        noise at left lattice point
+     * @param hi        noise at right lattice point
+     * @param t         weight of right lattice point
+     * @param amplitude amplitude of octave
+     * @param length    count of elements
+     */
+    void blend(float[] acc, float[] lo, float[] hi, float[] t, float amplitude, int length);
+
+    /**
+     * Find band of every value: count of thresholds, that are not greater than value.
+     *
+     * @param values     noise values
+     * @param thresholds ascending thresholds of bands
+     * @param bands      result
+     * @param length     count of elements
+     */
+    void classify(float[] values, float[] thresholds, int[] bands, int length);
+
+    /**
+     * Create kernel, that uses Vector API, if it is compiled in by Maven profile {@code vector}
+     * and module {@code jdk.incubator.vector} is added at runtime, or scalar kernel otherwise.
+     *
+     * @return fastest available kernel
+     */
+    static NoiseKernel create() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return Class.forName("backend.academy.generators.VectorNoiseKernel")
+                    .asSubclass(NoiseKernel.class)
+                    .getDeclaredConstructor()
+                    .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return new ScalarNoiseKernel();
+            }
+        }
+        return new ScalarNoiseKernel();
+    }
+}
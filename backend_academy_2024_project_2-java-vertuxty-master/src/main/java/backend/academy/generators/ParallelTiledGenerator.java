@@ -0,0 +1,223 @@
+package backend.academy.generators;
+
+import backend.academy.mazes.MazeStorage;
+import backend.academy.mazes.MutableMazeDTO;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class implementation of {@link AbstractGenerator}.
+ * Generate maze by splitting it into square tiles, that are generated concurrently in {@link ForkJoinPool}
+ * by algorithm of generator of other type. Only passages of tiles are carved,
+ * without terrain, braid and {@link backend.academy.mazes.Maze} of tile.
+ * Tiles of one row of tiles form band, bands are copied to storage of maze concurrently too.
+ * Tiles are joined by opening one passage for every pair of neighbour tiles,
+ * pairs are chosen in random order through {@link DisjointSetUnion} over tiles,
+ * so maze is perfect, if tiles are perfect. Cycles are added by braid of this generator over whole maze.
+ * Types of cells are filled by terrain of this generator, so terrain is continuous over borders of tiles.
+ */
+public class ParallelTiledGenerator extends AbstractGenerator {
+
+    /**
+     * Default size of side of tile.
+     */
+    public static final int DEFAULT_TILE_SIZE = 256;
+
+    private final AbstractGenerator tileGenerator;
+
+    private final int tileSize;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Protected constructor for creating instance of ParallelTiledGenerator.
+     *
+     * @param braid          braid stage, that adds cycles to generated perfect maze
+     * @param seeds          source of seeds for generated mazes
+     * @param terrain        terrain stage, that fills types of cells
+     * @param tileGenerator  generator, whose algorithm carves tiles from explicit seeds of tiles
+     * @param tileSize       size of side of tile, must be positive
+     * @param pool           pool, where tiles are generated
+     * @see GeneratorFactory
+     */
+    protected ParallelTiledGenerator(
+        Braid braid,
+        RandomSource seeds,
+        Terrain terrain,
+        AbstractGenerator tileGenerator,
+        int tileSize,
+        ForkJoinPool pool
+    ) {
+        super(braid, seeds, terrain);
+        this.tileGenerator = tileGenerator;
+        this.tileSize = tileSize;
+        this.pool = pool;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void generate(MutableMazeDTO mutableDTO, RandomSource random) {
+        int tileRows = (mutableDTO.height() + tileSize - 1) / tileSize;
+        int tileCols = (mutableDTO.width() + tileSize - 1) / tileSize;
+        long[] seeds = new long[tileRows * tileCols];
+        for (int tile = 0; tile < seeds.length; tile++) {
+            seeds[tile] = random.nextLong();
+        }
+        MutableMazeDTO.PassageWriter[] writers = new MutableMazeDTO.PassageWriter[tileRows];
+        int[][] deferred = new int[tileRows][];
+        pool.invoke(new BandTask(mutableDTO, tileCols, seeds, writers, deferred, 0, tileRows));
+        for (int band = 0; band < tileRows; band++) {
+            mutableDTO.merge(writers[band]);
+            for (int passage : deferred[band]) {
+                int from = passage >>> 1;
+                addEdges(mutableDTO, from, (passage & 1) == 0 ? from + 1 : from + mutableDTO.width());
+            }
+        }
+        stitch(mutableDTO, random, tileRows, tileCols);
+    }
+
+    /**
+     * Join tiles by passages on their borders.
+     * Pair of neighbour tiles is {@code 2 * tile} for east neighbour and {@code 2 * tile + 1} for south one.
+     */
+    private void stitch(MutableMazeDTO mutableDTO, RandomSource random, int tileRows, int tileCols) {
+        int tileCount = tileRows * tileCols;
+        int[] pairs = new int[2 * tileCount];
+        int count = 0;
+        for (int tile = 0; tile < tileCount; tile++) {
+            if (tile % tileCols + 1 < tileCols) {
+                pairs[count++] = 2 * tile;
+            }
+            if (tile / tileCols + 1 < tileRows) {
+                pairs[count++] = 2 * tile + 1;
+            }
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int pair = pairs[i];
+            pairs[i] = pairs[j];
+            pairs[j] = pair;
+        }
+        DisjointSetUnion disjointSetUnion = new DisjointSetUnion(tileCount);
+        for (int i = 0; i < count; i++) {
+            int tile = pairs[i] >>> 1;
+            boolean east = (pairs[i] & 1) == 0;
+            int neighbour = east ? tile + 1 : tile + tileCols;
+            if (disjointSetUnion.getRep(tile) != disjointSetUnion.getRep(neighbour)) {
+                disjointSetUnion.union(tile, neighbour);
+                openBorder(mutableDTO, random, tile, tileCols, east);
+            }
+        }
+    }
+
+    private void openBorder(MutableMazeDTO mutableDTO, RandomSource random, int tile, int tileCols, boolean east) {
+        int firstRow = tile / tileCols * tileSize;
+        int firstCol = tile % tileCols * tileSize;
+        if (east) {
+            int row = firstRow + random.nextInt(Math.min(tileSize, mutableDTO.height() - firstRow));
+            int from = mutableDTO.index(row, firstCol + tileSize - 1);
+            addEdges(mutableDTO, from, from + 1);
+        } else {
+            int col = firstCol + random.nextInt(Math.min(tileSize, mutableDTO.width() - firstCol));
+            int from = mutableDTO.index(firstRow + tileSize - 1, col);
+            addEdges(mutableDTO, from, from + mutableDTO.width());
+        }
+    }
+
+    /**
+     * Task, that generates range of bands, splitting it in halves.
+     * Band is one row of tiles, tiles of band are carved one by one and copied to storage of maze by band writer.
+     * Passages of cells in first and last blocks of band can share memory with neighbour bands,
+     * so they are deferred and written by calling thread, encoded as {@code 2 * cell} for east passage
+     * and {@code 2 * cell + 1} for south one.
+     */
+    private final class BandTask extends RecursiveAction {
+
+        private final MutableMazeDTO mutableDTO;
+
+        private final int tileCols;
+
+        private final long[] seeds;
+
+        private final MutableMazeDTO.PassageWriter[] writers;
+
+        private final int[][] deferred;
+
+        private final int from;
+
+        private final int to;
+
+        BandTask(
+            MutableMazeDTO mutableDTO,
+            int tileCols,
+            long[] seeds,
+            MutableMazeDTO.PassageWriter[] writers,
+            int[][] deferred,
+            int from,
+            int to
+        ) {
+            this.mutableDTO = mutableDTO;
+            this.tileCols = tileCols;
+            this.seeds = seeds;
+            this.writers = writers;
+            this.deferred = deferred;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                generateBand(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                new BandTask(mutableDTO, tileCols, seeds, writers, deferred, from, middle),
+                new BandTask(mutableDTO, tileCols, seeds, writers, deferred, middle, to)
+            );
+        }
+
+        private void generateBand(int band) {
+            int firstRow = band * tileSize;
+            int rows = Math.min(tileSize, mutableDTO.height() - firstRow);
+            int firstBlock = mutableDTO.index(firstRow, 0) / MazeStorage.PASSAGE_BLOCK;
+            int lastBlock = (mutableDTO.index(firstRow + rows, 0) - 1) / MazeStorage.PASSAGE_BLOCK;
+            MutableMazeDTO.PassageWriter writer = mutableDTO.passageWriter();
+            int[] edges = new int[2 * 2 * MazeStorage.PASSAGE_BLOCK];
+            int count = 0;
+            for (int tileCol = 0; tileCol < tileCols; tileCol++) {
+                int firstCol = tileCol * tileSize;
+                MutableMazeDTO tile = new MutableMazeDTO(rows, Math.min(tileSize, mutableDTO.width() - firstCol));
+                tileGenerator.carve(tile, seeds[band * tileCols + tileCol]);
+                for (int row = 0; row < tile.height(); row++) {
+                    for (int col = 0; col < tile.width(); col++) {
+                        int local = tile.index(row, col);
+                        int index = mutableDTO.index(firstRow + row, firstCol + col);
+                        int block = index / MazeStorage.PASSAGE_BLOCK;
+                        boolean edge = block == firstBlock || block == lastBlock;
+                        if (col + 1 < tile.width() && tile.hasPassage(local, local + 1)) {
+                            if (edge) {
+                                edges[count++] = 2 * index;
+                            } else {
+                                writer.addPassage(index, index + 1);
+                            }
+                        }
+                        if (row + 1 < tile.height() && tile.hasPassage(local, local + tile.width())) {
+                            if (edge) {
+                                edges[count++] = 2 * index + 1;
+                            } else {
+                                writer.addPassage(index, index + mutableDTO.width());
+                            }
+                        }
+                    }
+                }
+            }
+            writers[band] = writer;
+            deferred[band] = Arrays.copyOf(edges, count);
+        }
+    }
+}
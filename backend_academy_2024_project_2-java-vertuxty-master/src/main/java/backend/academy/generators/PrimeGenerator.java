@@ -1,57 +1,105 @@
 package backend.academy.generators;
 
-import backend.academy.mazes.Cell;
-import backend.academy.mazes.Coordinate;
-import backend.academy.mazes.Edge;
-import backend.academy.mazes.Maze;
 import backend.academy.mazes.MutableMazeDTO;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.BitSet;
 
 /**
  * Class implementation of {@link AbstractGenerator}.
  * Generate maze using Prime's algorithm base on walls deleting.
+ * Frontier of walls is packed {@code int[]}: wall is {@code index * 4 + direction},
+ * random wall is removed by swapping it with the last one,
+ * so every step takes O(1) time. Frontier and visited cells are kept in {@link ScratchArena},
+ * so repeated generation allocates almost nothing.
  */
 public class PrimeGenerator extends AbstractGenerator {
 
+    private static final int DIRECTIONS = 4;
+
+    private static final int DIRECTION_BITS = 2;
+
+    private static final int DIRECTION_MASK = DIRECTIONS - 1;
+
+    private static final int NORTH = 0;
+
+    private static final int SOUTH = 1;
+
+    private static final int EAST = 2;
+
+    private static final int WEST = 3;
+
     /**
      * Protected constructor for creating instance of PrimeGeneratorByWalls.
      *
      * @see GeneratorFactory
      */
-    protected PrimeGenerator(boolean singleSolution) {
-        super(singleSolution);
+    protected PrimeGenerator(Braid braid, RandomSource seeds, Terrain terrain) {
+        super(braid, seeds, terrain);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public Maze generate(int height, int width) {
-
-        MutableMazeDTO mutableDTO = new MutableMazeDTO(height, width);
-        initMutableMazeDTO(mutableDTO);
-        DisjointSetUnion disjointSetUnion = new DisjointSetUnion(height * width);
-
-        List<Edge> walls = new ArrayList<>();
-        Cell cell = mutableDTO.getCell(new Coordinate(secureRandom.nextInt(height), secureRandom.nextInt(width)));
-        addNearWalls(mutableDTO.grid(), walls, cell.coordinate());
-
-        while (!walls.isEmpty()) {
-            int ind = secureRandom.nextInt(walls.size());
-            Edge edge = walls.remove(ind);
-            Coordinate from = edge.from();
-            Coordinate to = edge.to();
-            int repFrom = from.row() * width + from.col();
-            int repTo = to.row() * width + to.col();
-            if (disjointSetUnion.getRep(repFrom) != disjointSetUnion.getRep(repTo)) {
-                disjointSetUnion.union(repFrom, repTo);
+    protected void generate(MutableMazeDTO mutableDTO, RandomSource random) {
+        int height = mutableDTO.height();
+        int width = mutableDTO.width();
+        try (ScratchArena arena = ScratchArena.acquire()) {
+            int[] walls = arena.ints(Math.multiplyExact(Math.multiplyExact(height, width), DIRECTIONS));
+            BitSet visited = arena.bits(height * width);
+            generate(mutableDTO, random, walls, visited);
+        }
+    }
+
+    private void generate(MutableMazeDTO mutableDTO, RandomSource random, int[] walls, BitSet visited) {
+        int height = mutableDTO.height();
+        int width = mutableDTO.width();
+        int start = mutableDTO.index(random.nextInt(height), random.nextInt(width));
+        visited.set(start);
+        int count = addNearWalls(walls, 0, start, height, width);
+
+        while (count > 0) {
+            int ind = random.nextInt(count);
+            int wall = walls[ind];
+            walls[ind] = walls[--count];
+            int from = wall >>> DIRECTION_BITS;
+            int to = neighbour(from, wall & DIRECTION_MASK, width);
+            if (!visited.get(to)) {
+                visited.set(to);
                 addEdges(mutableDTO, from, to);
-                addNearWalls(mutableDTO.grid(), walls, to);
-            } else {
-                addAccordingToProbability(mutableDTO, from, to);
+                count = addNearWalls(walls, count, to, height, width);
             }
         }
-        return new Maze(mutableDTO);
+    }
+
+    private static int addNearWalls(int[] walls, int count, int from, int height, int width) {
+        int row = from / width;
+        int col = from % width;
+        int result = count;
+        if (row > 0) {
+            walls[result++] = wall(from, NORTH);
+        }
+        if (row + 1 < height) {
+            walls[result++] = wall(from, SOUTH);
+        }
+        if (col + 1 < width) {
+            walls[result++] = wall(from, EAST);
+        }
+        if (col > 0) {
+            walls[result++] = wall(from, WEST);
+        }
+        return result;
+    }
+
+    private static int wall(int from, int direction) {
+        return from << DIRECTION_BITS | direction;
+    }
+
+    private static int neighbour(int from, int direction, int width) {
+        return switch (direction) {
+            case NORTH -> from - width;
+            case SOUTH -> from + width;
+            case EAST -> from + 1;
+            default -> from - 1;
+        };
     }
 }
@@ -0,0 +1,79 @@
+package backend.academy.generators;
+
+import java.util.SplittableRandom;
+
+/**
+ * Source of random numbers for generators.
+ * Source is seedable, so every maze can be generated again from its seed,
+ * and splittable, so independent sources can be given to different threads.
+ * Source is not thread-safe, use {@link #split()} for every thread.
+ *
+ * @see GeneratorFactory#createGenerator(GeneratorFactory.GeneratorType, boolean, RandomSource)
+ */
+public interface RandomSource {
+
+    /**
+     * Gets seed, that this source was created with.
+     *
+     * @return seed of source
+     */
+    long seed();
+
+    /**
+     * Gets random number from {@code 0} inclusive to {@code bound} exclusive.
+     *
+     * @param bound upper bound, must be positive
+     * @return random number
+     */
+    int nextInt(int bound);
+
+    /**
+     * Gets random number from {@code origin} inclusive to {@code bound} exclusive.
+     *
+     * @param origin lower bound
+     * @param bound  upper bound, must be greater than origin
+     * @return random number
+     */
+    int nextInt(int origin, int bound);
+
+    /**
+     * Gets random long.
+     *
+     * @return random number
+     */
+    long nextLong();
+
+    /**
+     * Gets random boolean.
+     *
+     * @return {@code true} or {@code false} with equal probability
+     */
+    boolean nextBoolean();
+
+    /**
+     * Create new independent source, seeded by this source.
+     *
+     * @return new source
+     */
+    RandomSource split();
+
+    /**
+     * Create source with given seed.
+     * Sources with equal seeds return equal sequences of numbers.
+     *
+     * @param seed seed of source
+     * @return new source, based on {@link SplittableRandom}
+     */
+    static RandomSource seeded(long seed) {
+        return new SplittableRandomSource(seed);
+    }
+
+    /**
+     * Create source with random seed.
+     *
+     * @return new source
+     */
+    static RandomSource create() {
+        return seeded(new SplittableRandom().nextLong());
+    }
+}
@@ -0,0 +1,21 @@
+package backend.academy.generators;
+
+import backend.academy.mazes.Cell;
+
+/**
+ * Callback, that receives rows of maze from {@link StreamingGenerator} one by one, from top to bottom.
+ * Arrays are reused for next row, so sink must copy them if they are needed after call.
+ */
+@FunctionalInterface
+public interface RowSink {
+
+    /**
+     * Accept finished row of maze.
+     *
+     * @param row   index of row
+     * @param types types of cells of row, ordered by column
+     * @param east  {@code east[col]} is {@code true} if there is passage from cell to its east neighbour
+     * @param south {@code south[col]} is {@code true} if there is passage from cell to cell in next row
+     */
+    void accept(int row, Cell.Type[] types, boolean[] east, boolean[] south);
+}
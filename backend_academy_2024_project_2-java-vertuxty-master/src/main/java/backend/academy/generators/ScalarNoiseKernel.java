@@ -0,0 +1,41 @@
+package backend.academy.generators;
+
+/**
+ * Implementation of {@link NoiseKernel} by plain loops.
+ */
+final class ScalarNoiseKernel implements NoiseKernel {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void blend(float[] acc, float[] lo, float[] hi, float[] t, float amplitude, int length) {
+        blendRange(acc, lo, hi, t, amplitude, 0, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void classify(float[] values, float[] thresholds, int[] bands, int length) {
+        classifyRange(values, thresholds, bands, 0, length);
+    }
+
+    static void blendRange(float[] acc, float[] lo, float[] hi, float[] t, float amplitude, int from, int to) {
+        for (int i = from; i < to; i++) {
+            acc[i] += (lo[i] + t[i] * (hi[i] - lo[i])) * amplitude;
+        }
+    }
+
+    static void classifyRange(float[] values, float[] thresholds, int[] bands, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int band = 0;
+            for (float threshold : thresholds) {
+                if (values[i] >= threshold) {
+                    band++;
+                }
+            }
+            bands[i] = band;
+        }
+    }
+}
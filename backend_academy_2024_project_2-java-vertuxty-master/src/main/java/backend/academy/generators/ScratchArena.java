@@ -0,0 +1,147 @@
+package backend.academy.generators;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.BitSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reusable buffers for generation of one maze.
+ * Arenas are kept in bounded pool: generator takes arena for one maze and returns it back,
+ * so buffers are reused by following mazes on any thread, virtual threads included.
+ * Every buffer grows to the largest recent request and is dropped,
+ * if it stays much larger than requests for {@link #WINDOW} generations.
+ * Buffers are not cleared, except for {@link #bits(int)} and {@link #disjointSetUnion(int)}.
+ */
+final class ScratchArena implements AutoCloseable {
+
+    private static final int WINDOW = 64;
+
+    private static final int SHRINK_FACTOR = 4;
+
+    private static final BlockingQueue<ScratchArena> POOL =
+        new ArrayBlockingQueue<>(2 * Runtime.getRuntime().availableProcessors());
+
+    private final Buffer ints = new Buffer();
+
+    private final Buffer bits = new Buffer();
+
+    private final Buffer sets = new Buffer();
+
+    private int[] intBuffer = new int[0];
+
+    private BitSet bitBuffer = new BitSet();
+
+    private int[] parents = new int[0];
+
+    private int[] ranks = new int[0];
+
+    private int generations;
+
+    private ScratchArena() {
+    }
+
+    /**
+     * Take arena from pool or create new one, if pool is empty.
+     *
+     * @return arena, that must be closed after generation
+     */
+    static ScratchArena acquire() {
+        ScratchArena arena = POOL.poll();
+        return arena == null ? new ScratchArena() : arena;
+    }
+
+    /**
+     * Gets buffer of {@code int}, content of buffer is arbitrary.
+     *
+     * @param size required length of buffer
+     * @return buffer with length at least {@code size}
+     */
+    int[] ints(int size) {
+        if (ints.request(size, intBuffer.length)) {
+            intBuffer = new int[size];
+        }
+        return intBuffer;
+    }
+
+    /**
+     * Gets cleared set of bits.
+     *
+     * @param size required count of bits
+     * @return empty set
+     */
+    BitSet bits(int size) {
+        if (bits.request(size, bitBuffer.size())) {
+            bitBuffer = new BitSet(size);
+        } else {
+            bitBuffer.clear();
+        }
+        return bitBuffer;
+    }
+
+    /**
+     * Gets DSU, where every element is in its own set.
+     *
+     * @param size count of elements
+     * @return DSU over buffers of arena
+     */
+    DisjointSetUnion disjointSetUnion(int size) {
+        if (sets.request(size + 1, parents.length)) {
+            parents = new int[size + 1];
+            ranks = new int[size + 1];
+        }
+        return new DisjointSetUnion(parents, ranks, size);
+    }
+
+    /**
+     * Return arena to pool. Buffers, that were too large for recent requests, are dropped.
+     * If pool is full, arena is left to garbage collector.
+     */
+    @Override
+    @SuppressFBWarnings(value = "RV_RETURN_VALUE_IGNORED_BAD_PRACTICE", justification = "Full pool drops arena")
+    public void close() {
+        if (++generations == WINDOW) {
+            generations = 0;
+            if (ints.shrink(intBuffer.length)) {
+                intBuffer = new int[0];
+            }
+            if (bits.shrink(bitBuffer.size())) {
+                bitBuffer = new BitSet();
+            }
+            if (sets.shrink(parents.length)) {
+                parents = new int[0];
+                ranks = new int[0];
+            }
+        }
+        POOL.offer(this);
+    }
+
+    /**
+     * Statistics of requests to one buffer.
+     */
+    private static final class Buffer {
+
+        private int largestRecent;
+
+        /**
+         * Record request.
+         *
+         * @return {@code true} if buffer must be reallocated
+         */
+        boolean request(int size, int capacity) {
+            largestRecent = Math.max(largestRecent, size);
+            return capacity < size;
+        }
+
+        /**
+         * Start new window of requests.
+         *
+         * @return {@code true} if buffer must be dropped
+         */
+        boolean shrink(int capacity) {
+            boolean tooLarge = capacity > SHRINK_FACTOR * largestRecent;
+            largestRecent = 0;
+            return tooLarge;
+        }
+    }
+}
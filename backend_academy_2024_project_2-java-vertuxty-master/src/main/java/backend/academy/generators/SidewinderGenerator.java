@@ -0,0 +1,49 @@
+package backend.academy.generators;
+
+import backend.academy.mazes.MutableMazeDTO;
+
+/**
+ * Class implementation of {@link AbstractGenerator}.
+ * Generate maze using Sidewinder algorithm:
+ * every row is split into runs of cells, joined to the east,
+ * and every run opens one passage to the north.
+ * Only start of current run is kept, so algorithm needs no additional memory.
+ */
+public class SidewinderGenerator extends AbstractGenerator {
+
+    /**
+     * Protected constructor for creating instance of SidewinderGenerator.
+     *
+     * @see GeneratorFactory
+     */
+    protected SidewinderGenerator(Braid braid, RandomSource seeds, Terrain terrain) {
+        super(braid, seeds, terrain);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void generate(MutableMazeDTO mutableDTO, RandomSource random) {
+        int height = mutableDTO.height();
+        int width = mutableDTO.width();
+        for (int row = 0; row < height; row++) {
+            int runStart = 0;
+            for (int col = 0; col < width; col++) {
+                int index = mutableDTO.index(row, col);
+                boolean canEast = col + 1 < width;
+                if (row == 0) {
+                    if (canEast) {
+                        addEdges(mutableDTO, index, index + 1);
+                    }
+                } else if (canEast && random.nextBoolean()) {
+                    addEdges(mutableDTO, index, index + 1);
+                } else {
+                    int north = mutableDTO.index(row, random.nextInt(runStart, col + 1));
+                    addEdges(mutableDTO, north, north - width);
+                    runStart = col + 1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package backend.academy.generators;
+
+import java.util.SplittableRandom;
+
+/**
+ * Implementation of {@link RandomSource} over {@link SplittableRandom}.
+ */
+final class SplittableRandomSource implements RandomSource {
+
+    private final long seed;
+
+    private final SplittableRandom random;
+
+    SplittableRandomSource(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public long seed() {
+        return seed;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public int nextInt(int origin, int bound) {
+        return random.nextInt(origin, bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(random.nextLong());
+    }
+}
@@ -0,0 +1,30 @@
+package backend.academy.generators;
+
+/**
+ * Generator, that can emit maze row by row without keeping it in memory.
+ * Memory does not depend on height of maze, so maze can be written straight to disk or to renderer.
+ *
+ * @see RowSink
+ */
+public interface StreamingGenerator extends Generator {
+
+    /**
+     * Generate maze and emit its rows to sink.
+     *
+     * @param height count of rows in maze
+     * @param width  count of columns in maze
+     * @param sink   receiver of rows
+     */
+    void generate(int height, int width, RowSink sink);
+
+    /**
+     * Generate maze from given seed and emit its rows to sink.
+     * Rows are equal to rows of maze from {@link #generate(int, int, long)} with the same seed.
+     *
+     * @param height count of rows in maze
+     * @param width  count of columns in maze
+     * @param seed   seed of maze
+     * @param sink   receiver of rows
+     */
+    void generate(int height, int width, long seed, RowSink sink);
+}
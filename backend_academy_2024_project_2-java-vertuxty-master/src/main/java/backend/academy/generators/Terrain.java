@@ -0,0 +1,281 @@
+package backend.academy.generators;
+
+import backend.academy.mazes.Cell;
+import backend.academy.mazes.MutableMazeDTO;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Terrain stage of maze generation, that fills types of cells from seeded value noise.
+ * Noise is sum of octaves: random values in nodes of lattice with step {@code scale}
+ * are interpolated by smoothstep, every next octave has twice smaller step and amplitude.
+ * Range of noise is split into bands, one for every type with positive weight,
+ * so neighbour cells with close noise get the same type.
+ * Bounds of bands are quantiles of noise, measured once on sample of fixed seed,
+ * so share of every type is close to its share of total weight.
+ * Terrain with {@code scale = 1} is white noise: type of every cell is independent.
+ * Rows are computed in bulk by scalar {@link NoiseKernel}, Vector API kernel is opt-in,
+ * see {@link NoiseKernel#create()}.
+ * Terrain depends only on seed of maze and is immutable, so it can be shared by threads.
+ */
+public final class Terrain {
+
+    private static final int MAX_OCTAVES = 4;
+
+    private static final int SAMPLE_SIDE = 512;
+
+    private static final long SAMPLE_SEED = 0;
+
+    private static final float[] NO_BOUNDS = {};
+
+    private static final int NOISE_BITS = 24;
+
+    private static final float NOISE_UNIT = 1f / (1 << NOISE_BITS);
+
+    private static final float SMOOTHSTEP = 3f;
+
+    private static final long SALT = 0x5DEE_CE66_D1CE_4E5BL;
+
+    private static final long ROW_GAMMA = 0x9E37_79B9_7F4A_7C15L;
+
+    private static final long COL_GAMMA = 0xC2B2_AE3D_27D4_EB4FL;
+
+    private static final long MIX_FIRST = 0xBF58_476D_1CE4_E5B9L;
+
+    private static final long MIX_SECOND = 0x94D0_49BB_1331_11EBL;
+
+    private static final int SHIFT_FIRST = 30;
+
+    private static final int SHIFT_SECOND = 27;
+
+    private static final int SHIFT_THIRD = 31;
+
+    private static final NoiseKernel KERNEL = NoiseKernel.create();
+
+    private static final Terrain UNIFORM = uniformTerrain();
+
+    private final Cell.Type[] bandTypes;
+
+    private final float[] thresholds;
+
+    private final int[] steps;
+
+    private final float[] amplitudes;
+
+    private Terrain(Cell.Type[] bandTypes, long[] cumulativeWeights, int scale) {
+        int octaves = 0;
+        int[] allSteps = new int[MAX_OCTAVES];
+        for (int step = scale; step >= 1 && octaves < MAX_OCTAVES; step /= 2) {
+            allSteps[octaves++] = step;
+        }
+        this.steps = Arrays.copyOf(allSteps, octaves);
+        this.amplitudes = new float[octaves];
+        for (int octave = 0; octave < octaves; octave++) {
+            amplitudes[octave] = 1f / (1 << octave);
+        }
+        this.bandTypes = bandTypes;
+        this.thresholds = quantiles(cumulativeWeights);
+    }
+
+    private float[] quantiles(long[] cumulativeWeights) {
+        if (cumulativeWeights.length == 1) {
+            return NO_BOUNDS;
+        }
+        float[] bounds = new float[cumulativeWeights.length - 1];
+        float[] sample = new float[SAMPLE_SIDE * SAMPLE_SIDE];
+        Rows rows = new Rows(SAMPLE_SEED, SAMPLE_SIDE);
+        for (int row = 0; row < SAMPLE_SIDE; row++) {
+            System.arraycopy(rows.noise(row), 0, sample, row * SAMPLE_SIDE, SAMPLE_SIDE);
+        }
+        Arrays.sort(sample);
+        long weightSum = cumulativeWeights[cumulativeWeights.length - 1];
+        for (int band = 0; band < bounds.length; band++) {
+            bounds[band] = sample[(int) ((double) sample.length * cumulativeWeights[band] / weightSum)];
+        }
+        return bounds;
+    }
+
+    /**
+     * Terrain, where every cell independently gets any type, except {@link Cell.Type#WALL}, with equal probability.
+     *
+     * @return white noise terrain
+     */
+    public static Terrain uniform() {
+        return UNIFORM;
+    }
+
+    /**
+     * Create terrain from value noise.
+     *
+     * @param weights weights of types, types without weight or with zero weight don't appear
+     * @param scale   size of features of terrain in cells, {@code 1} for independent cells
+     * @return terrain
+     * @throws IllegalArgumentException if scale is not positive, any weight is negative,
+     *                                  {@link Cell.Type#WALL} has positive weight or all weights are zero
+     */
+    public static Terrain noise(Map<Cell.Type, Integer> weights, int scale) {
+        if (scale <= 0) {
+            throw new IllegalArgumentException("Scale of terrain must be positive: " + scale);
+        }
+        Map<Cell.Type, Integer> positive = new EnumMap<>(Cell.Type.class);
+        for (Map.Entry<Cell.Type, Integer> entry : weights.entrySet()) {
+            if (entry.getValue() < 0) {
+                throw new IllegalArgumentException("Weight of " + entry.getKey() + " is negative: " + entry.getValue());
+            }
+            if (entry.getValue() > 0) {
+                positive.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (positive.containsKey(Cell.Type.WALL)) {
+            throw new IllegalArgumentException("Terrain can't contain walls");
+        }
+        if (positive.isEmpty()) {
+            throw new IllegalArgumentException("At least one type must have positive weight");
+        }
+        Cell.Type[] bandTypes = positive.keySet().toArray(new Cell.Type[0]);
+        long[] cumulativeWeights = new long[bandTypes.length];
+        long sum = 0;
+        for (int band = 0; band < bandTypes.length; band++) {
+            sum += positive.get(bandTypes[band]);
+            cumulativeWeights[band] = sum;
+        }
+        return new Terrain(bandTypes, cumulativeWeights, scale);
+    }
+
+    private static Terrain uniformTerrain() {
+        Map<Cell.Type, Integer> weights = new EnumMap<>(Cell.Type.class);
+        for (Cell.Type type : Cell.Type.values()) {
+            if (type != Cell.Type.WALL) {
+                weights.put(type, 1);
+            }
+        }
+        return noise(weights, 1);
+    }
+
+    /**
+     * Fill types of all cells of maze.
+     *
+     * @param mutableDTO mutable structure of maze
+     * @param seed       seed of maze
+     */
+    void fill(MutableMazeDTO mutableDTO, long seed) {
+        int width = mutableDTO.width();
+        Rows rows = rows(seed, width);
+        Cell.Type[] types = new Cell.Type[width];
+        for (int row = 0; row < mutableDTO.height(); row++) {
+            rows.fill(row, types);
+            int first = row * width;
+            for (int col = 0; col < width; col++) {
+                mutableDTO.setType(first + col, types[col]);
+            }
+        }
+    }
+
+    /**
+     * Create generator of rows of terrain, that can be used for one maze in one thread.
+     *
+     * @param seed  seed of maze
+     * @param width width of maze
+     * @return generator of rows
+     */
+    Rows rows(long seed, int width) {
+        return new Rows(mix(seed ^ SALT), width);
+    }
+
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> SHIFT_FIRST)) * MIX_FIRST;
+        z = (z ^ (z >>> SHIFT_SECOND)) * MIX_SECOND;
+        return z ^ (z >>> SHIFT_THIRD);
+    }
+
+    private static float fade(int offset, int step) {
+        float t = (float) offset / step;
+        return t * t * (SMOOTHSTEP - 2 * t);
+    }
+
+    /**
+     * Generator of rows of terrain with buffers, that are reused between rows.
+     */
+    final class Rows {
+
+        private final long seed;
+
+        private final int width;
+
+        private final float[][] weights;
+
+        private final float[] edge;
+
+        private final float[] lo;
+
+        private final float[] hi;
+
+        private final float[] acc;
+
+        private final int[] bands;
+
+        private Rows(long seed, int width) {
+            this.seed = seed;
+            this.width = width;
+            this.weights = new float[steps.length][width];
+            for (int octave = 0; octave < steps.length; octave++) {
+                for (int col = 0; col < width; col++) {
+                    weights[octave][col] = fade(col % steps[octave], steps[octave]);
+                }
+            }
+            this.edge = new float[width + 1];
+            this.lo = new float[width];
+            this.hi = new float[width];
+            this.acc = new float[width];
+            this.bands = new int[width];
+        }
+
+        /**
+         * Fill types of cells in row.
+         *
+         * @param row   index of row
+         * @param types types of cells, its length must be at least width of maze
+         */
+        void fill(int row, Cell.Type[] types) {
+            KERNEL.classify(noise(row), thresholds, bands, width);
+            for (int col = 0; col < width; col++) {
+                types[col] = bandTypes[bands[col]];
+            }
+        }
+
+        /**
+         * Compute noise of cells in row.
+         *
+         * @param row index of row
+         * @return noise, buffer is reused by next row
+         */
+        private float[] noise(int row) {
+            Arrays.fill(acc, 0f);
+            for (int octave = 0; octave < steps.length; octave++) {
+                int step = steps[octave];
+                long octaveSeed = mix(seed + octave);
+                int latticeRow = row / step;
+                float fy = fade(row % step, step);
+                int nodes = (width - 1) / step + 2;
+                for (int node = 0; node < nodes; node++) {
+                    float top = node(octaveSeed, latticeRow, node);
+                    float bottom = node(octaveSeed, latticeRow + 1, node);
+                    edge[node] = top + fy * (bottom - top);
+                }
+                for (int col = 0; col < width; col++) {
+                    lo[col] = edge[col / step];
+                    hi[col] = edge[col / step + 1];
+                }
+                KERNEL.blend(acc, lo, hi, weights[octave], amplitudes[octave], width);
+            }
+            return acc;
+        }
+
+        private static float node(long octaveSeed, int latticeRow, int latticeCol) {
+            long hash = mix(octaveSeed + latticeRow * ROW_GAMMA + latticeCol * COL_GAMMA);
+            return (hash >>> (Long.SIZE - NOISE_BITS)) * NOISE_UNIT;
+        }
+    }
+}
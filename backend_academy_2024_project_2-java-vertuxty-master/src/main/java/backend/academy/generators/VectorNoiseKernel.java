@@ -0,0 +1,53 @@
+package backend.academy.generators;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of {@link NoiseKernel} by incubator Vector API.
+ * Tail of row, that doesn't fill whole vector, is processed by {@link ScalarNoiseKernel}.
+ * Operations are the same as in scalar kernel and are not fused, so results are bit-identical.
+ */
+final class VectorNoiseKernel implements NoiseKernel {
+
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class, FLOATS.vectorShape());
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void blend(float[] acc, float[] lo, float[] hi, float[] t, float amplitude, int length) {
+        int bound = FLOATS.loopBound(length);
+        for (int i = 0; i < bound; i += FLOATS.length()) {
+            FloatVector low = FloatVector.fromArray(FLOATS, lo, i);
+            FloatVector high = FloatVector.fromArray(FLOATS, hi, i);
+            FloatVector weight = FloatVector.fromArray(FLOATS, t, i);
+            FloatVector octave = low.add(weight.mul(high.sub(low))).mul(amplitude);
+            FloatVector.fromArray(FLOATS, acc, i).add(octave).intoArray(acc, i);
+        }
+        ScalarNoiseKernel.blendRange(acc, lo, hi, t, amplitude, bound, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void classify(float[] values, float[] thresholds, int[] bands, int length) {
+        int bound = FLOATS.loopBound(length);
+        for (int i = 0; i < bound; i += FLOATS.length()) {
+            FloatVector value = FloatVector.fromArray(FLOATS, values, i);
+            IntVector band = IntVector.zero(INTS);
+            for (float threshold : thresholds) {
+                VectorMask<Integer> above = value.compare(VectorOperators.GE, threshold).cast(INTS);
+                band = band.add(1, above);
+            }
+            band.intoArray(bands, i);
+        }
+        ScalarNoiseKernel.classifyRange(values, thresholds, bands, bound, length);
+    }
+}
@@ -0,0 +1,92 @@
+package backend.academy.generators;
+
+import backend.academy.mazes.MutableMazeDTO;
+import java.util.BitSet;
+
+/**
+ * Class implementation of {@link AbstractGenerator}.
+ * Generate maze using Wilson's algorithm: loop-erased random walks from every cell,
+ * that is not in maze yet, until walk meets maze.
+ * Every spanning tree of grid is generated with equal probability.
+ * Walk is kept as direction of last exit from every cell in {@code int[]},
+ * so loops are erased by overwriting directions and no lists are needed.
+ * Directions and cells of maze are kept in {@link ScratchArena}.
+ */
+public class WilsonGenerator extends AbstractGenerator {
+
+    private static final int DIRECTIONS = 4;
+
+    private static final int NORTH = 0;
+
+    private static final int SOUTH = 1;
+
+    private static final int EAST = 2;
+
+    /**
+     * Protected constructor for creating instance of WilsonGenerator.
+     *
+     * @see GeneratorFactory
+     */
+    protected WilsonGenerator(Braid braid, RandomSource seeds, Terrain terrain) {
+        super(braid, seeds, terrain);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void generate(MutableMazeDTO mutableDTO, RandomSource random) {
+        try (ScratchArena arena = ScratchArena.acquire()) {
+            int size = mutableDTO.height() * mutableDTO.width();
+            walk(mutableDTO, random, arena.ints(size), arena.bits(size));
+        }
+    }
+
+    private void walk(MutableMazeDTO mutableDTO, RandomSource random, int[] next, BitSet inMaze) {
+        int height = mutableDTO.height();
+        int width = mutableDTO.width();
+        int size = height * width;
+        inMaze.set(random.nextInt(size));
+        for (int start = inMaze.nextClearBit(0); start < size; start = inMaze.nextClearBit(start + 1)) {
+            int cell = start;
+            while (!inMaze.get(cell)) {
+                int direction = randomDirection(random, cell, height, width);
+                next[cell] = direction;
+                cell = neighbour(cell, direction, width);
+            }
+            cell = start;
+            while (!inMaze.get(cell)) {
+                inMaze.set(cell);
+                int to = neighbour(cell, next[cell], width);
+                addEdges(mutableDTO, cell, to);
+                cell = to;
+            }
+        }
+    }
+
+    private static int randomDirection(RandomSource random, int cell, int height, int width) {
+        int row = cell / width;
+        int col = cell % width;
+        while (true) {
+            int direction = random.nextInt(DIRECTIONS);
+            boolean valid = switch (direction) {
+                case NORTH -> row > 0;
+                case SOUTH -> row + 1 < height;
+                case EAST -> col + 1 < width;
+                default -> col > 0;
+            };
+            if (valid) {
+                return direction;
+            }
+        }
+    }
+
+    private static int neighbour(int cell, int direction, int width) {
+        return switch (direction) {
+            case NORTH -> cell - width;
+            case SOUTH -> cell + width;
+            case EAST -> cell + 1;
+            default -> cell - 1;
+        };
+    }
+}
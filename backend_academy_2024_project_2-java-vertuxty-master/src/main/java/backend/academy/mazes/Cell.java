@@ -30,6 +30,8 @@ public record Cell(Coordinate coordinate, Type type) {
         NAILS(8),
         LAVA(9);
 
+        private static final int LENGTH = values().length;
+
         /**
          * Weight of cell.
          * Different types have different weight.
@@ -37,7 +39,7 @@ public record Cell(Coordinate coordinate, Type type) {
         private final int weight;
 
         public static int length() {
-            return Type.values().length;
+            return LENGTH;
         }
     }
 }
@@ -0,0 +1,105 @@
+package backend.academy.mazes;
+
+/**
+ * Implementation of {@link MazeStorage} on java heap.
+ * Keeps one byte per cell for {@link Cell.Type}
+ * and two bits per cell for east and south passages.
+ */
+public final class HeapMazeStorage implements MazeStorage {
+
+    private static final Cell.Type[] TYPES = Cell.Type.values();
+
+    private static final int WORD_SHIFT = 6;
+
+    private static final int WORD_MASK = 63;
+
+    private final int height;
+
+    private final int width;
+
+    private final byte[] types;
+
+    private final long[] passages;
+
+    /**
+     * Create storage where all cells are {@link Cell.Type#WALL} and all passages are closed.
+     *
+     * @param height count of rows in maze
+     * @param width  count of columns in maze
+     */
+    public HeapMazeStorage(int height, int width) {
+        if (height <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Maze size must be positive: " + height + "x" + width);
+        }
+        int size = Math.multiplyExact(height, width);
+        this.height = height;
+        this.width = width;
+        this.types = new byte[size];
+        this.passages = new long[(int) ((2L * size + WORD_MASK) >>> WORD_SHIFT)];
+    }
+
+    private HeapMazeStorage(HeapMazeStorage other) {
+        this.height = other.height;
+        this.width = other.width;
+        this.types = other.types.clone();
+        this.passages = other.passages.clone();
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public Cell.Type type(int index) {
+        return TYPES[types[index]];
+    }
+
+    @Override
+    public void setType(int index, Cell.Type type) {
+        types[index] = (byte) type.ordinal();
+    }
+
+    @Override
+    public boolean hasEastPassage(int index) {
+        return bit(2L * index);
+    }
+
+    @Override
+    public boolean hasSouthPassage(int index) {
+        return bit(2L * index + 1);
+    }
+
+    @Override
+    public void setEastPassage(int index, boolean open) {
+        setBit(2L * index, open);
+    }
+
+    @Override
+    public void setSouthPassage(int index, boolean open) {
+        setBit(2L * index + 1, open);
+    }
+
+    @Override
+    public MazeStorage copy() {
+        return new HeapMazeStorage(this);
+    }
+
+    private boolean bit(long position) {
+        return (passages[(int) (position >>> WORD_SHIFT)] & (1L << position)) != 0;
+    }
+
+    private void setBit(long position, boolean value) {
+        int word = (int) (position >>> WORD_SHIFT);
+        if (value) {
+            passages[word] |= 1L << position;
+        } else {
+            passages[word] &= ~(1L << position);
+        }
+    }
+}
@@ -1,38 +1,409 @@
 package backend.academy.mazes;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import lombok.AccessLevel;
 import lombok.Getter;
 
 /**
  * Class for maze representation in {@link backend.academy.Game}.
  * Maze is Immutable, use {@link MutableMazeDTO} for mutable representation of maze.
+ * Cells and passages are kept in compact {@link MazeStorage},
+ * {@link #mazeGraph()} is a lazy view over it.
+ * Accessors like {@link #cellAt(int, int)} never copy maze,
+ * {@link Cell} instances are created once per cell and cached by rows,
+ * every row is built fully and published atomically, so maze can be shared by threads.
+ * Methods {@code with*} create new versions of maze,
+ * versions share unchanged chunks of {@link TiledMazeStorage}.
  */
 
 @Getter
 public class Maze {
 
     @Getter(AccessLevel.NONE)
-    private final Cell[][] grid;
+    private final MazeStorage storage;
+    @Getter(AccessLevel.NONE)
+    private final AtomicReferenceArray<Cell[]> cellRows;
     private final Map<Cell, List<Cell>> mazeGraph;
     private final int height;
     private final int width;
+    private final MazeOrigin origin;
+    @Getter(AccessLevel.NONE)
+    private volatile MazeAdjacency adjacency;
+    @Getter(AccessLevel.NONE)
+    private volatile MazeFingerprint fingerprint;
 
     public Maze(Map<Cell, List<Cell>> mazeGraph, Cell[][] grid) {
-        this.grid = Arrays.stream(grid).map(Cell[]::clone).toArray(Cell[][]::new);
-        this.mazeGraph = Collections.unmodifiableMap(mazeGraph);
-        this.height = grid.length;
-        this.width = grid[0].length;
+        this(storageOf(mazeGraph, grid), MazeOrigin.UNKNOWN);
     }
 
     public Maze(MutableMazeDTO mutableDTO) {
-        this(mutableDTO.mazeGraph(), mutableDTO.grid());
+        this(mutableDTO.copyStorage(), MazeOrigin.UNKNOWN, mutableDTO.fingerprint());
+    }
+
+    /**
+     * Create maze over given storage.
+     * Storage must not be changed after maze creation.
+     *
+     * @param storage storage with cells and passages of maze
+     * @param origin  information about how maze was generated
+     */
+    Maze(MazeStorage storage, MazeOrigin origin) {
+        this(storage, origin, null);
+    }
+
+    /**
+     * Create maze over given storage with already known fingerprint.
+     * Storage must not be changed after maze creation.
+     *
+     * @param storage     storage with cells and passages of maze
+     * @param origin      information about how maze was generated
+     * @param fingerprint fingerprint of storage, or {@code null} if it should be computed on demand
+     */
+    Maze(MazeStorage storage, MazeOrigin origin, MazeFingerprint fingerprint) {
+        this.storage = storage;
+        this.fingerprint = fingerprint;
+        this.origin = origin;
+        this.height = storage.height();
+        this.width = storage.width();
+        this.cellRows = new AtomicReferenceArray<>(height);
+        this.mazeGraph = new MazeGraphView(storage, this::cellAt);
     }
 
+    /**
+     * Copy all cells of maze to new grid.
+     * Prefer {@link #cellAt(int, int)} and {@link #row(int)}, they don't copy maze.
+     *
+     * @return grid of cells, that can be changed by caller
+     */
     public Cell[][] getGrid() {
-        return Arrays.stream(grid).map(Cell[]::clone).toArray(Cell[][]::new);
+        Cell[][] grid = new Cell[height][];
+        for (int row = 0; row < height; row++) {
+            grid[row] = cachedRow(row).clone();
+        }
+        return grid;
+    }
+
+    /**
+     * Gets index of cell by its position.
+     *
+     * @param row row of cell
+     * @param col column of cell
+     * @return index of cell, {@code row * width + col}
+     */
+    public int index(int row, int col) {
+        return row * width + col;
+    }
+
+    /**
+     * Gets cell by its position.
+     * Same instance is returned for every call with the same position.
+     *
+     * @param row row of cell
+     * @param col column of cell
+     * @return cell of maze
+     */
+    public Cell cellAt(int row, int col) {
+        return cachedRow(row)[col];
+    }
+
+    /**
+     * Gets cell by its index.
+     *
+     * @param index index of cell
+     * @return cell of maze
+     * @see #cellAt(int, int)
+     */
+    public Cell cellAt(int index) {
+        return cellAt(index / width, index % width);
+    }
+
+    /**
+     * Gets type of cell without creating {@link Cell} instance.
+     *
+     * @param index index of cell
+     * @return type of cell
+     */
+    public Cell.Type typeAt(int index) {
+        return storage.type(index);
+    }
+
+    /**
+     * Gets weight of cell without creating {@link Cell} instance.
+     *
+     * @param index index of cell
+     * @return weight of cell type
+     */
+    public int weightAt(int index) {
+        return storage.type(index).weight();
+    }
+
+    /**
+     * Gets all cells of one row.
+     *
+     * @param row row of maze
+     * @return unmodifiable list of cells, ordered by column
+     */
+    public List<Cell> row(int row) {
+        return Collections.unmodifiableList(Arrays.asList(cachedRow(row)));
+    }
+
+    /**
+     * Checks if there is passage from cell to its east neighbour.
+     *
+     * @param row row of cell
+     * @param col column of cell
+     * @return {@code true} if there is no wall between cell and its east neighbour
+     */
+    public boolean hasEastPassage(int row, int col) {
+        return storage.hasEastPassage(storage.index(row, col));
+    }
+
+    /**
+     * Checks if there is passage from cell to its south neighbour.
+     *
+     * @param row row of cell
+     * @param col column of cell
+     * @return {@code true} if there is no wall between cell and its south neighbour
+     */
+    public boolean hasSouthPassage(int row, int col) {
+        return storage.hasSouthPassage(storage.index(row, col));
+    }
+
+    /**
+     * Checks if there is passage from cell to its east neighbour.
+     *
+     * @param index index of cell
+     * @return {@code true} if there is no wall between cell and its east neighbour
+     */
+    public boolean hasEastPassage(int index) {
+        return storage.hasEastPassage(index);
+    }
+
+    /**
+     * Checks if there is passage from cell to its south neighbour.
+     *
+     * @param index index of cell
+     * @return {@code true} if there is no wall between cell and its south neighbour
+     */
+    public boolean hasSouthPassage(int index) {
+        return storage.hasSouthPassage(index);
+    }
+
+    /**
+     * Gets passages of maze in compressed sparse row format.
+     * Adjacency is built on first call and cached.
+     *
+     * @return immutable adjacency of maze
+     */
+    public MazeAdjacency adjacency() {
+        MazeAdjacency result = adjacency;
+        if (result == null) {
+            result = MazeAdjacency.of(storage);
+            adjacency = result;
+        }
+        return result;
+    }
+
+    /**
+     * Gets 128-bit fingerprint of cell types and passages.
+     * Generated mazes get fingerprint during generation,
+     * for other mazes it is computed on first call and cached.
+     * Mazes with different fingerprints are different,
+     * so it is a cheap key for caches and deduplication.
+     *
+     * @return fingerprint of maze content
+     */
+    public MazeFingerprint fingerprint() {
+        MazeFingerprint result = fingerprint;
+        if (result == null) {
+            result = MazeFingerprint.of(storage);
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    /**
+     * Create new version of maze with changed type of one cell.
+     * This maze is not changed, first edit of maze copies it to {@link TiledMazeStorage},
+     * next edits copy only one chunk.
+     *
+     * @param index index of cell
+     * @param type  new type of cell
+     * @return new version of maze
+     */
+    public Maze withType(int index, Cell.Type type) {
+        Cell.Type previous = storage.type(index);
+        if (previous == type) {
+            return this;
+        }
+        MazeFingerprint next = fingerprint;
+        if (next != null) {
+            if (previous.ordinal() != 0) {
+                next = next.toggle(MazeFingerprint.typeFeature(index, previous.ordinal()));
+            }
+            if (type.ordinal() != 0) {
+                next = next.toggle(MazeFingerprint.typeFeature(index, type.ordinal()));
+            }
+        }
+        return new Maze(tiledStorage().withType(index, type), origin, next);
+    }
+
+    /**
+     * Create new version of maze without wall between two neighbour cells.
+     *
+     * @param from index of first cell
+     * @param to   index of second cell
+     * @return new version of maze
+     * @throws IllegalArgumentException if cells are not neighbours
+     * @see #withType(int, Cell.Type)
+     */
+    public Maze withPassage(int from, int to) {
+        return withPassage(from, to, true);
+    }
+
+    /**
+     * Create new version of maze with wall between two neighbour cells.
+     *
+     * @param from index of first cell
+     * @param to   index of second cell
+     * @return new version of maze
+     * @throws IllegalArgumentException if cells are not neighbours
+     * @see #withType(int, Cell.Type)
+     */
+    public Maze withWall(int from, int to) {
+        return withPassage(from, to, false);
+    }
+
+    /**
+     * Save maze to file in binary format.
+     *
+     * @param file file, where maze is written. Existing file is overwritten.
+     * @throws IOException if file can't be written
+     * @see MazeBinaryFormat
+     */
+    public void save(Path file) throws IOException {
+        MazeBinaryFormat.write(this, file);
+    }
+
+    /**
+     * Load maze from file in binary format.
+     * File is memory-mapped, cells are not read until they are accessed,
+     * only passages on borders of maze are checked while loading.
+     * Unknown type of cell is reported by {@link IllegalStateException}, when cell is accessed.
+     * Mapping is released when maze becomes unreachable.
+     *
+     * @param file file with maze
+     * @return loaded maze
+     * @throws IOException if file can't be read or has wrong format
+     * @see #save(Path)
+     */
+    public static Maze load(Path file) throws IOException {
+        return load(file, Arena.ofAuto());
+    }
+
+    /**
+     * Load maze from file in binary format.
+     * File is memory-mapped in given arena, maze can be used while arena is alive.
+     *
+     * @param file  file with maze
+     * @param arena arena, that owns mapping
+     * @return loaded maze
+     * @throws IOException if file can't be read or has wrong format
+     */
+    public static Maze load(Path file, Arena arena) throws IOException {
+        return MazeBinaryFormat.read(file, arena);
+    }
+
+    /**
+     * Export maze as JSON, row by row.
+     * Stream is not closed.
+     *
+     * @param out stream, where JSON is written
+     * @throws IOException if stream can't be written
+     * @see MazeJsonFormat
+     */
+    public void exportJson(OutputStream out) throws IOException {
+        MazeJsonFormat.write(this, out);
+    }
+
+    /**
+     * Import maze from JSON, written by {@link #exportJson(OutputStream)}.
+     * Stream is not closed.
+     *
+     * @param in stream with JSON
+     * @return imported maze
+     * @throws IOException if stream can't be read or JSON has wrong format
+     */
+    public static Maze importJson(InputStream in) throws IOException {
+        return MazeJsonFormat.read(in);
+    }
+
+    /**
+     * Gets storage of maze, storage must not be changed.
+     *
+     * @return storage with cells and passages
+     */
+    MazeStorage storage() {
+        return storage;
+    }
+
+    private Maze withPassage(int from, int to, boolean open) {
+        int low = Math.min(from, to);
+        int distance = Math.max(from, to) - low;
+        if (distance != width && (distance != 1 || (low + 1) % width == 0)) {
+            throw new IllegalArgumentException("Cells " + from + " and " + to + " are not neighbours");
+        }
+        if (storage.isConnected(from, to) == open) {
+            return this;
+        }
+        MazeFingerprint next = fingerprint;
+        if (next != null) {
+            next = next.toggle(distance == 1 ? MazeFingerprint.eastFeature(low) : MazeFingerprint.southFeature(low));
+        }
+        return new Maze(tiledStorage().withPassage(from, to, open), origin, next);
+    }
+
+    private TiledMazeStorage tiledStorage() {
+        return storage instanceof TiledMazeStorage tiled ? tiled : TiledMazeStorage.copyOf(storage);
+    }
+
+    private Cell[] cachedRow(int row) {
+        Cell[] cells = cellRows.get(row);
+        if (cells != null) {
+            return cells;
+        }
+        cells = new Cell[width];
+        for (int col = 0; col < width; col++) {
+            cells[col] = new Cell(new Coordinate(row, col), storage.type(index(row, col)));
+        }
+        Cell[] published = cellRows.compareAndExchange(row, null, cells);
+        return published == null ? cells : published;
+    }
+
+    private static MazeStorage storageOf(Map<Cell, List<Cell>> mazeGraph, Cell[][] grid) {
+        MazeStorage storage = new HeapMazeStorage(grid.length, grid[0].length);
+        for (int row = 0; row < storage.height(); row++) {
+            for (int col = 0; col < storage.width(); col++) {
+                Cell cell = grid[row][col];
+                storage.setType(storage.index(row, col), cell == null ? Cell.Type.WALL : cell.type());
+            }
+        }
+        for (Map.Entry<Cell, List<Cell>> entry : mazeGraph.entrySet()) {
+            Coordinate from = entry.getKey().coordinate();
+            for (Cell cell : entry.getValue()) {
+                Coordinate to = cell.coordinate();
+                storage.setPassage(storage.index(from.row(), from.col()), storage.index(to.row(), to.col()), true);
+            }
+        }
+        return storage;
     }
 }
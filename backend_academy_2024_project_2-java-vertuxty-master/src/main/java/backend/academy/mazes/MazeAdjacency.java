@@ -0,0 +1,132 @@
+package backend.academy.mazes;
+
+/**
+ * Immutable snapshot of {@link Maze} passages in compressed sparse row (CSR) format.
+ * Neighbours of cell {@code v} are {@code target(e)} for {@code offset(v) <= e < offset(v + 1)},
+ * {@code weight(e)} is weight of type of {@code target(e)}.
+ * Solvers iterate neighbours by plain array access instead of building lists of cells.
+ *
+ * @see Maze#adjacency()
+ */
+public final class MazeAdjacency {
+
+    private final int[] offsets;
+
+    private final int[] targets;
+
+    private final byte[] weights;
+
+    private MazeAdjacency(int[] offsets, int[] targets, byte[] weights) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Build adjacency from storage.
+     * Neighbours of every cell are ordered: north, west, east, south.
+     *
+     * @param storage storage with cells and passages
+     * @return adjacency of storage
+     */
+    static MazeAdjacency of(MazeStorage storage) {
+        int size = storage.size();
+        int width = storage.width();
+        int[] offsets = new int[size + 1];
+        for (int index = 0; index < size; index++) {
+            if (storage.hasEastPassage(index)) {
+                offsets[index + 1]++;
+                offsets[index + 2]++;
+            }
+            if (storage.hasSouthPassage(index)) {
+                offsets[index + 1]++;
+                offsets[index + width + 1]++;
+            }
+        }
+        for (int index = 0; index < size; index++) {
+            offsets[index + 1] = Math.addExact(offsets[index + 1], offsets[index]);
+        }
+        int[] targets = new int[offsets[size]];
+        byte[] weights = new byte[offsets[size]];
+        int edge = 0;
+        for (int index = 0; index < size; index++) {
+            if (index >= width && storage.hasSouthPassage(index - width)) {
+                edge = add(storage, targets, weights, edge, index - width);
+            }
+            if (index % width != 0 && storage.hasEastPassage(index - 1)) {
+                edge = add(storage, targets, weights, edge, index - 1);
+            }
+            if (storage.hasEastPassage(index)) {
+                edge = add(storage, targets, weights, edge, index + 1);
+            }
+            if (storage.hasSouthPassage(index)) {
+                edge = add(storage, targets, weights, edge, index + width);
+            }
+        }
+        return new MazeAdjacency(offsets, targets, weights);
+    }
+
+    private static int add(MazeStorage storage, int[] targets, byte[] weights, int edge, int target) {
+        targets[edge] = target;
+        weights[edge] = (byte) storage.type(target).weight();
+        return edge + 1;
+    }
+
+    /**
+     * Gets count of cells.
+     *
+     * @return count of cells in maze
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Gets count of oriented edges, every passage is counted twice.
+     *
+     * @return count of edges
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Gets first edge of cell, edges of cell end at {@code offset(cell + 1)}.
+     *
+     * @param cell index of cell, from {@code 0} to {@code size()} inclusive
+     * @return index of first edge
+     */
+    public int offset(int cell) {
+        return offsets[cell];
+    }
+
+    /**
+     * Gets count of neighbours of cell.
+     *
+     * @param cell index of cell
+     * @return count of cells, reachable from cell without crossing a wall
+     */
+    public int degree(int cell) {
+        return offsets[cell + 1] - offsets[cell];
+    }
+
+    /**
+     * Gets cell, where edge goes.
+     *
+     * @param edge index of edge
+     * @return index of neighbour cell
+     */
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Gets weight of cell, where edge goes.
+     *
+     * @param edge index of edge
+     * @return weight of neighbour cell type
+     */
+    public int weight(int edge) {
+        return weights[edge];
+    }
+}
@@ -0,0 +1,236 @@
+package backend.academy.mazes;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Binary file format of {@link Maze}.
+ * All numbers are little-endian. File consists of:
+ * <ul>
+ *     <li>header of {@value #HEADER_SIZE} bytes: magic {@code MAZE}, version, flags,
+ *     height, width, seed and name of generator</li>
+ *     <li>types of cells, one byte per cell, ordered by index {@code row * width + col}</li>
+ *     <li>passages, two bits per cell: bit {@code 2 * index} is east passage
+ *     and bit {@code 2 * index + 1} is south passage</li>
+ * </ul>
+ * Cells and passages have the same layout as {@link SegmentMazeStorage},
+ * so file is loaded by mapping it to memory without copying.
+ * Only passages on borders are checked while loading: they must not lead out of maze.
+ * Types of cells are checked, when they are read from {@link SegmentMazeStorage}.
+ */
+@UtilityClass
+class MazeBinaryFormat {
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 64;
+
+    private static final byte[] MAGIC = {'M', 'A', 'Z', 'E'};
+
+    private static final int VERSION_OFFSET = 4;
+
+    private static final int FLAGS_OFFSET = 6;
+
+    private static final int HEIGHT_OFFSET = 8;
+
+    private static final int WIDTH_OFFSET = 12;
+
+    private static final int SEED_OFFSET = 16;
+
+    private static final int GENERATOR_LENGTH_OFFSET = 24;
+
+    private static final int GENERATOR_OFFSET = 26;
+
+    private static final int MAX_GENERATOR_LENGTH = HEADER_SIZE - GENERATOR_OFFSET;
+
+    private static final int CYCLES_FLAG = 1;
+
+    private static final int CELLS_PER_BYTE = 4;
+
+    private static final int SOUTH_BIT = 2;
+
+    private static final int BUFFER_SIZE = 65_536;
+
+    /**
+     * Write maze to file.
+     *
+     * @param maze maze that need to be written
+     * @param file file, existing file is overwritten
+     * @throws IOException if file can't be written
+     */
+    void write(Maze maze, Path file) throws IOException {
+        MazeStorage storage = maze.storage();
+        try (FileChannel channel = FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            writeFully(channel, header(maze));
+            if (storage instanceof SegmentMazeStorage segmentStorage) {
+                long typesSize = SegmentMazeStorage.typesSize(maze.height(), maze.width());
+                long passagesSize = SegmentMazeStorage.passagesSize(maze.height(), maze.width());
+                writeFully(channel, segmentStorage.types().asSlice(0, typesSize).asByteBuffer());
+                writeFully(channel, segmentStorage.passages().asSlice(0, passagesSize).asByteBuffer());
+            } else {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                writeTypes(channel, storage, buffer);
+                writePassages(channel, storage, buffer);
+            }
+        }
+    }
+
+    /**
+     * Map maze from file.
+     *
+     * @param file  file with maze
+     * @param arena arena, that owns mapping
+     * @return maze, that reads cells from mapped file
+     * @throws IOException if file can't be read or has wrong format
+     */
+    Maze read(Path file, Arena arena) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read until header is full or file ends
+            }
+            if (header.hasRemaining()) {
+                throw new IOException("File is too short for maze header: " + file);
+            }
+            header.flip();
+            byte[] magic = new byte[MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a maze file: " + file);
+            }
+            int version = header.getShort(VERSION_OFFSET);
+            if (version != VERSION) {
+                throw new IOException("Unsupported maze file version " + version + ": " + file);
+            }
+            int height = header.getInt(HEIGHT_OFFSET);
+            int width = header.getInt(WIDTH_OFFSET);
+            if (height <= 0 || width <= 0 || (long) height * width > Integer.MAX_VALUE) {
+                throw new IOException("Wrong maze size " + height + "x" + width + ": " + file);
+            }
+            long typesSize = SegmentMazeStorage.typesSize(height, width);
+            long passagesSize = SegmentMazeStorage.passagesSize(height, width);
+            if (channel.size() < HEADER_SIZE + typesSize + passagesSize) {
+                throw new IOException("File is too short for maze " + height + "x" + width + ": " + file);
+            }
+            MemorySegment segment = channel.map(
+                FileChannel.MapMode.READ_ONLY,
+                HEADER_SIZE,
+                typesSize + passagesSize,
+                arena
+            );
+            MazeStorage storage = new SegmentMazeStorage(
+                height,
+                width,
+                segment.asSlice(0, typesSize),
+                segment.asSlice(typesSize, passagesSize)
+            );
+            validate(storage, file);
+            return new Maze(storage, readOrigin(header));
+        }
+    }
+
+    private void validate(MazeStorage storage, Path file) throws IOException {
+        int width = storage.width();
+        for (int last = width - 1; last < storage.size(); last += width) {
+            if (storage.hasEastPassage(last)) {
+                throw new IOException("East passage leads out of maze at index " + last + ": " + file);
+            }
+        }
+        for (int index = storage.size() - width; index < storage.size(); index++) {
+            if (storage.hasSouthPassage(index)) {
+                throw new IOException("South passage leads out of maze at index " + index + ": " + file);
+            }
+        }
+    }
+
+    private ByteBuffer header(Maze maze) {
+        MazeOrigin origin = maze.origin();
+        byte[] generator = origin.generator().getBytes(StandardCharsets.UTF_8);
+        if (generator.length > MAX_GENERATOR_LENGTH) {
+            generator = Arrays.copyOf(generator, MAX_GENERATOR_LENGTH);
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC)
+            .putShort(VERSION_OFFSET, (short) VERSION)
+            .putShort(FLAGS_OFFSET, (short) (origin.cyclesAllowed() ? CYCLES_FLAG : 0))
+            .putInt(HEIGHT_OFFSET, maze.height())
+            .putInt(WIDTH_OFFSET, maze.width())
+            .putLong(SEED_OFFSET, origin.seed())
+            .putShort(GENERATOR_LENGTH_OFFSET, (short) generator.length)
+            .put(GENERATOR_OFFSET, generator);
+        return header.clear();
+    }
+
+    private MazeOrigin readOrigin(ByteBuffer header) throws IOException {
+        int generatorLength = header.getShort(GENERATOR_LENGTH_OFFSET);
+        if (generatorLength < 0 || generatorLength > MAX_GENERATOR_LENGTH) {
+            throw new IOException("Wrong length of generator name: " + generatorLength);
+        }
+        byte[] generator = new byte[generatorLength];
+        header.get(GENERATOR_OFFSET, generator);
+        return new MazeOrigin(
+            new String(generator, StandardCharsets.UTF_8),
+            header.getLong(SEED_OFFSET),
+            (header.getShort(FLAGS_OFFSET) & CYCLES_FLAG) != 0
+        );
+    }
+
+    private void writeTypes(FileChannel channel, MazeStorage storage, ByteBuffer buffer) throws IOException {
+        int size = storage.size();
+        for (int index = 0; index < size; index++) {
+            if (!buffer.hasRemaining()) {
+                flush(channel, buffer);
+            }
+            buffer.put((byte) storage.type(index).ordinal());
+        }
+        flush(channel, buffer);
+    }
+
+    private void writePassages(FileChannel channel, MazeStorage storage, ByteBuffer buffer) throws IOException {
+        int size = storage.size();
+        for (int index = 0; index < size; index += CELLS_PER_BYTE) {
+            int packed = 0;
+            int last = Math.min(index + CELLS_PER_BYTE, size);
+            for (int cell = index; cell < last; cell++) {
+                int shift = 2 * (cell - index);
+                if (storage.hasEastPassage(cell)) {
+                    packed |= 1 << shift;
+                }
+                if (storage.hasSouthPassage(cell)) {
+                    packed |= SOUTH_BIT << shift;
+                }
+            }
+            if (!buffer.hasRemaining()) {
+                flush(channel, buffer);
+            }
+            buffer.put((byte) packed);
+        }
+        flush(channel, buffer);
+    }
+
+    private void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
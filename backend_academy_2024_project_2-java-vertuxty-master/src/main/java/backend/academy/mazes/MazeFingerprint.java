@@ -0,0 +1,131 @@
+package backend.academy.mazes;
+
+/**
+ * 128-bit content fingerprint of maze in Zobrist style.
+ * Every feature of maze (type of cell, open east or south passage of cell) has random 128-bit key,
+ * fingerprint is XOR of keys of all present features mixed with size of maze.
+ * So one change of maze changes fingerprint in O(1) and fingerprint can be kept up to date
+ * while maze is generated, see {@link MutableMazeDTO}.
+ * Keys are not stored anywhere, they are computed from feature by SplitMix64 finalizer.
+ *
+ * <p>Equal mazes always have equal fingerprints,
+ * different mazes have equal fingerprints only with negligible probability.
+ *
+ * @param high high 64 bits of fingerprint
+ * @param low  low 64 bits of fingerprint
+ * @see Maze#fingerprint()
+ */
+public record MazeFingerprint(long high, long low) {
+
+    private static final int EAST = Cell.Type.length();
+
+    private static final int SOUTH = EAST + 1;
+
+    private static final int FEATURES_PER_CELL = SOUTH + 1;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final long HIGH_SEED = 0x6A09E667F3BCC909L;
+
+    private static final long LOW_SEED = 0xBB67AE8584CAA73BL;
+
+    private static final long MIX_1 = 0xBF58476D1CE4E5B9L;
+
+    private static final long MIX_2 = 0x94D049BB133111EBL;
+
+    private static final int SHIFT_1 = 30;
+
+    private static final int SHIFT_2 = 27;
+
+    private static final int SHIFT_3 = 31;
+
+    private static final int INT_BITS = 32;
+
+    /**
+     * Compute fingerprint of all cells and passages in storage.
+     *
+     * @param storage storage with cells and passages
+     * @return fingerprint of storage
+     */
+    static MazeFingerprint of(MazeStorage storage) {
+        long high = 0;
+        long low = 0;
+        for (int index = 0; index < storage.size(); index++) {
+            int ordinal = storage.type(index).ordinal();
+            if (ordinal != 0) {
+                high ^= highKey(typeFeature(index, ordinal));
+                low ^= lowKey(typeFeature(index, ordinal));
+            }
+            if (storage.hasEastPassage(index)) {
+                high ^= highKey(eastFeature(index));
+                low ^= lowKey(eastFeature(index));
+            }
+            if (storage.hasSouthPassage(index)) {
+                high ^= highKey(southFeature(index));
+                low ^= lowKey(southFeature(index));
+            }
+        }
+        return of(storage.height(), storage.width(), high, low);
+    }
+
+    /**
+     * Create fingerprint from XOR of keys of features.
+     * Cells of type {@link Cell.Type#WALL} without passages have no features.
+     *
+     * @param height height of maze
+     * @param width  width of maze
+     * @param high   XOR of high keys of features
+     * @param low    XOR of low keys of features
+     * @return fingerprint of maze
+     */
+    static MazeFingerprint of(int height, int width, long high, long low) {
+        long dimensions = ~(((long) height << INT_BITS) | Integer.toUnsignedLong(width));
+        return new MazeFingerprint(high ^ highKey(dimensions), low ^ lowKey(dimensions));
+    }
+
+    /**
+     * Create fingerprint of maze, where one feature is added or removed.
+     *
+     * @param feature feature, that is changed
+     * @return new fingerprint
+     */
+    MazeFingerprint toggle(long feature) {
+        return new MazeFingerprint(high ^ highKey(feature), low ^ lowKey(feature));
+    }
+
+    static long typeFeature(int index, int ordinal) {
+        return (long) index * FEATURES_PER_CELL + ordinal;
+    }
+
+    static long eastFeature(int index) {
+        return (long) index * FEATURES_PER_CELL + EAST;
+    }
+
+    static long southFeature(int index) {
+        return (long) index * FEATURES_PER_CELL + SOUTH;
+    }
+
+    static long highKey(long feature) {
+        return mix(feature * GOLDEN_GAMMA + HIGH_SEED);
+    }
+
+    static long lowKey(long feature) {
+        return mix(feature * GOLDEN_GAMMA + LOW_SEED);
+    }
+
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> SHIFT_1)) * MIX_1;
+        z = (z ^ (z >>> SHIFT_2)) * MIX_2;
+        return z ^ (z >>> SHIFT_3);
+    }
+
+    /**
+     * Gets fingerprint as hex string.
+     *
+     * @return 32 hex digits, high bits first
+     */
+    public String toHexString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
@@ -0,0 +1,112 @@
+package backend.academy.mazes;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Read-only view of {@link MazeStorage} as graph of cells.
+ * Lists of neighbours are not stored anywhere, they are built from passage bits on every access.
+ */
+final class MazeGraphView extends AbstractMap<Cell, List<Cell>> {
+
+    private static final int MAX_NEIGHBOURS = 4;
+
+    private final MazeStorage storage;
+
+    private final IntFunction<Cell> cells;
+
+    /**
+     * Create view over storage.
+     *
+     * @param storage storage with cells and passages
+     * @param cells   function, that returns cell by its index
+     */
+    MazeGraphView(MazeStorage storage, IntFunction<Cell> cells) {
+        this.storage = storage;
+        this.cells = cells;
+    }
+
+    @Override
+    public List<Cell> get(Object key) {
+        if (!(key instanceof Cell cell)) {
+            return null;
+        }
+        int row = cell.coordinate().row();
+        int col = cell.coordinate().col();
+        if (row < 0 || row >= storage.height() || col < 0 || col >= storage.width()) {
+            return null;
+        }
+        int index = storage.index(row, col);
+        if (storage.type(index) != cell.type()) {
+            return null;
+        }
+        return neighbours(index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return storage.size();
+    }
+
+    @Override
+    public Set<Entry<Cell, List<Cell>>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Cell, List<Cell>>> iterator() {
+                return new Iterator<>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < size();
+                    }
+
+                    @Override
+                    public Entry<Cell, List<Cell>> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<Cell, List<Cell>> entry = Map.entry(cells.apply(index), neighbours(index));
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return storage.size();
+            }
+        };
+    }
+
+    private List<Cell> neighbours(int index) {
+        int width = storage.width();
+        List<Cell> neighbours = new ArrayList<>(MAX_NEIGHBOURS);
+        if (index >= width && storage.hasSouthPassage(index - width)) {
+            neighbours.add(cells.apply(index - width));
+        }
+        if (storage.hasSouthPassage(index)) {
+            neighbours.add(cells.apply(index + width));
+        }
+        if (storage.hasEastPassage(index)) {
+            neighbours.add(cells.apply(index + 1));
+        }
+        if (index % width != 0 && storage.hasEastPassage(index - 1)) {
+            neighbours.add(cells.apply(index - 1));
+        }
+        return List.copyOf(neighbours);
+    }
+}
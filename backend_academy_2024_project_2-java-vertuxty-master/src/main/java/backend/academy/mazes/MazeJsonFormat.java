@@ -0,0 +1,268 @@
+package backend.academy.mazes;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import lombok.experimental.UtilityClass;
+
+/**
+ * JSON format of {@link Maze}, written and read by Jackson streaming API.
+ * Maze is processed row by row, so only one row is kept in memory besides maze itself:
+ * <pre>
+ * {
+ *   "version": 1,
+ *   "height": 2,
+ *   "width": 3,
+ *   "origin": {"generator": "KruskalGenerator", "seed": 0, "cyclesAllowed": false},
+ *   "rows": [
+ *     {"types": "145", "east": [0, 2, 1], "south": [2, 1]},
+ *     {"types": "912", "east": [3], "south": [3]}
+ *   ]
+ * }
+ * </pre>
+ * Type of cell is one base-36 digit with ordinal of {@link Cell.Type}.
+ * Passages are run-length encoded: lengths of runs of walls and passages alternate,
+ * the first run is always walls and may be empty.
+ */
+@UtilityClass
+class MazeJsonFormat {
+
+    static final int VERSION = 1;
+
+    private static final Cell.Type[] TYPES = Cell.Type.values();
+
+    private static final JsonFactory FACTORY = JsonFactory.builder()
+        .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+        .disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+        .build();
+
+    private static final String VERSION_FIELD = "version";
+    private static final String HEIGHT_FIELD = "height";
+    private static final String WIDTH_FIELD = "width";
+    private static final String ORIGIN_FIELD = "origin";
+    private static final String GENERATOR_FIELD = "generator";
+    private static final String SEED_FIELD = "seed";
+    private static final String CYCLES_FIELD = "cyclesAllowed";
+    private static final String ROWS_FIELD = "rows";
+    private static final String TYPES_FIELD = "types";
+    private static final String EAST_FIELD = "east";
+    private static final String SOUTH_FIELD = "south";
+
+    /**
+     * Write maze as JSON. Stream is not closed.
+     *
+     * @param maze maze that need to be written
+     * @param out  stream, where JSON is written
+     * @throws IOException if stream can't be written
+     */
+    void write(Maze maze, OutputStream out) throws IOException {
+        MazeStorage storage = maze.storage();
+        MazeOrigin origin = maze.origin();
+        char[] types = new char[maze.width()];
+        try (JsonGenerator generator = FACTORY.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeNumberField(VERSION_FIELD, VERSION);
+            generator.writeNumberField(HEIGHT_FIELD, maze.height());
+            generator.writeNumberField(WIDTH_FIELD, maze.width());
+            generator.writeObjectFieldStart(ORIGIN_FIELD);
+            generator.writeStringField(GENERATOR_FIELD, origin.generator());
+            generator.writeNumberField(SEED_FIELD, origin.seed());
+            generator.writeBooleanField(CYCLES_FIELD, origin.cyclesAllowed());
+            generator.writeEndObject();
+            generator.writeArrayFieldStart(ROWS_FIELD);
+            for (int row = 0; row < maze.height(); row++) {
+                int first = storage.index(row, 0);
+                for (int col = 0; col < maze.width(); col++) {
+                    types[col] = Character.forDigit(storage.type(first + col).ordinal(), Character.MAX_RADIX);
+                }
+                generator.writeStartObject();
+                generator.writeFieldName(TYPES_FIELD);
+                generator.writeString(types, 0, types.length);
+                generator.writeFieldName(EAST_FIELD);
+                writeRuns(generator, storage, first, true);
+                generator.writeFieldName(SOUTH_FIELD);
+                writeRuns(generator, storage, first, false);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Read maze from JSON. Stream is not closed.
+     *
+     * @param in stream with JSON
+     * @return read maze
+     * @throws IOException if stream can't be read or JSON has wrong format
+     */
+    Maze read(InputStream in) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(in)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            int height = -1;
+            int width = -1;
+            MazeOrigin origin = MazeOrigin.UNKNOWN;
+            MazeStorage storage = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case VERSION_FIELD -> {
+                        if (parser.getIntValue() != VERSION) {
+                            throw new JsonParseException(parser, "Unsupported maze version " + parser.getText());
+                        }
+                    }
+                    case HEIGHT_FIELD -> height = parser.getIntValue();
+                    case WIDTH_FIELD -> width = parser.getIntValue();
+                    case ORIGIN_FIELD -> origin = readOrigin(parser, token);
+                    case ROWS_FIELD -> {
+                        if (height <= 0 || width <= 0) {
+                            throw new JsonParseException(parser, "Positive height and width must precede rows");
+                        }
+                        storage = new HeapMazeStorage(height, width);
+                        readRows(parser, token, storage);
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            if (storage == null) {
+                throw new JsonParseException(parser, "Maze has no rows");
+            }
+            return new Maze(storage, origin);
+        }
+    }
+
+    private void writeRuns(
+        JsonGenerator generator,
+        MazeStorage storage,
+        int first,
+        boolean east
+    ) throws IOException {
+        generator.writeStartArray();
+        boolean open = false;
+        int run = 0;
+        for (int index = first; index < first + storage.width(); index++) {
+            boolean passage = east ? storage.hasEastPassage(index) : storage.hasSouthPassage(index);
+            if (passage != open) {
+                generator.writeNumber(run);
+                open = passage;
+                run = 0;
+            }
+            run++;
+        }
+        generator.writeNumber(run);
+        generator.writeEndArray();
+    }
+
+    private MazeOrigin readOrigin(JsonParser parser, JsonToken token) throws IOException {
+        expect(parser, token, JsonToken.START_OBJECT);
+        String generator = "";
+        long seed = 0;
+        boolean cyclesAllowed = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case GENERATOR_FIELD -> generator = parser.getText();
+                case SEED_FIELD -> seed = parser.getLongValue();
+                case CYCLES_FIELD -> cyclesAllowed = parser.getBooleanValue();
+                default -> parser.skipChildren();
+            }
+        }
+        return new MazeOrigin(generator, seed, cyclesAllowed);
+    }
+
+    private void readRows(JsonParser parser, JsonToken token, MazeStorage storage) throws IOException {
+        expect(parser, token, JsonToken.START_ARRAY);
+        int row = 0;
+        JsonToken rowToken = parser.nextToken();
+        while (rowToken != JsonToken.END_ARRAY) {
+            if (row >= storage.height()) {
+                throw new JsonParseException(parser, "Too many rows, expected " + storage.height());
+            }
+            readRow(parser, rowToken, storage, row);
+            row++;
+            rowToken = parser.nextToken();
+        }
+        if (row != storage.height()) {
+            throw new JsonParseException(parser, "Too few rows: " + row + " of " + storage.height());
+        }
+    }
+
+    private void readRow(JsonParser parser, JsonToken token, MazeStorage storage, int row) throws IOException {
+        expect(parser, token, JsonToken.START_OBJECT);
+        int first = storage.index(row, 0);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken valueToken = parser.nextToken();
+            switch (field) {
+                case TYPES_FIELD -> readTypes(parser, valueToken, storage, first);
+                case EAST_FIELD -> readRuns(parser, valueToken, storage, first, true);
+                case SOUTH_FIELD -> readRuns(parser, valueToken, storage, first, false);
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private void readTypes(JsonParser parser, JsonToken token, MazeStorage storage, int first) throws IOException {
+        expect(parser, token, JsonToken.VALUE_STRING);
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        if (parser.getTextLength() != storage.width()) {
+            throw new JsonParseException(parser, "Row must have " + storage.width() + " types");
+        }
+        for (int col = 0; col < storage.width(); col++) {
+            int ordinal = Character.digit(text[offset + col], Character.MAX_RADIX);
+            if (ordinal < 0 || ordinal >= TYPES.length) {
+                throw new JsonParseException(parser, "Unknown cell type " + text[offset + col]);
+            }
+            storage.setType(first + col, TYPES[ordinal]);
+        }
+    }
+
+    private void readRuns(
+        JsonParser parser,
+        JsonToken token,
+        MazeStorage storage,
+        int first,
+        boolean east
+    ) throws IOException {
+        expect(parser, token, JsonToken.START_ARRAY);
+        boolean open = false;
+        int col = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            int run = parser.getIntValue();
+            if (run < 0 || col + run > storage.width()) {
+                throw new JsonParseException(parser, "Runs of passages exceed row width " + storage.width());
+            }
+            boolean border = east ? col + run == storage.width() : first / storage.width() + 1 == storage.height();
+            if (open && run > 0 && border) {
+                throw new JsonParseException(parser, "Passage leads out of maze in row " + first / storage.width());
+            }
+            for (int end = col + run; col < end; col++) {
+                if (east) {
+                    storage.setEastPassage(first + col, open);
+                } else {
+                    storage.setSouthPassage(first + col, open);
+                }
+            }
+            open = !open;
+        }
+        if (col != storage.width()) {
+            throw new JsonParseException(parser, "Runs of passages must cover row width " + storage.width());
+        }
+    }
+
+    private void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + ", but got " + actual);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package backend.academy.mazes;
+
+/**
+ * Record class with information about how {@link Maze} was generated.
+ *
+ * @param generator     name of generator, empty if unknown
+ * @param seed          seed of random generator
+ * @param cyclesAllowed {@code true} if generator was allowed to create cycles
+ */
+public record MazeOrigin(String generator, long seed, boolean cyclesAllowed) {
+
+    /**
+     * Origin of maze, that was not created by generator.
+     */
+    public static final MazeOrigin UNKNOWN = new MazeOrigin("", 0, false);
+}
@@ -0,0 +1,150 @@
+package backend.academy.mazes;
+
+/**
+ * Compact storage of maze's cells.
+ * Every cell is addressed by index {@code row * width + col}
+ * and keeps its {@link Cell.Type} and two passage bits:
+ * passage to the east neighbour and passage to the south neighbour.
+ * Passages to the west and north are read from bits of neighbour cell.
+ * Passages of cells in different aligned blocks of {@link #PASSAGE_BLOCK} cells
+ * are kept in different units of memory, so such blocks can be written by different threads.
+ *
+ * @see HeapMazeStorage
+ */
+public interface MazeStorage {
+
+    /**
+     * Count of cells in aligned block, whose passages may share one unit of memory.
+     */
+    int PASSAGE_BLOCK = 32;
+
+    /**
+     * Gets count of rows in maze.
+     *
+     * @return count of rows in maze
+     */
+    int height();
+
+    /**
+     * Gets count of columns in maze.
+     *
+     * @return count of columns in maze
+     */
+    int width();
+
+    /**
+     * Gets type of cell.
+     *
+     * @param index index of cell
+     * @return type of cell
+     */
+    Cell.Type type(int index);
+
+    /**
+     * Sets type of cell.
+     *
+     * @param index index of cell
+     * @param type  new type of cell
+     */
+    void setType(int index, Cell.Type type);
+
+    /**
+     * Checks if there is passage from cell to its east neighbour.
+     *
+     * @param index index of cell
+     * @return {@code true} if there is no wall between cell and its east neighbour
+     */
+    boolean hasEastPassage(int index);
+
+    /**
+     * Checks if there is passage from cell to its south neighbour.
+     *
+     * @param index index of cell
+     * @return {@code true} if there is no wall between cell and its south neighbour
+     */
+    boolean hasSouthPassage(int index);
+
+    /**
+     * Opens or closes passage from cell to its east neighbour.
+     *
+     * @param index index of cell
+     * @param open  {@code true} to remove wall, {@code false} to build it
+     */
+    void setEastPassage(int index, boolean open);
+
+    /**
+     * Opens or closes passage from cell to its south neighbour.
+     *
+     * @param index index of cell
+     * @param open  {@code true} to remove wall, {@code false} to build it
+     */
+    void setSouthPassage(int index, boolean open);
+
+    /**
+     * Copy storage with all cells and passages.
+     *
+     * @return independent copy of this storage
+     */
+    MazeStorage copy();
+
+    /**
+     * Gets count of cells in maze.
+     *
+     * @return count of cells in maze
+     */
+    default int size() {
+        return height() * width();
+    }
+
+    /**
+     * Gets index of cell by its position.
+     *
+     * @param row row of cell
+     * @param col column of cell
+     * @return index of cell
+     */
+    default int index(int row, int col) {
+        return row * width() + col;
+    }
+
+    /**
+     * Checks if there is passage between two cells.
+     *
+     * @param from index of first cell
+     * @param to   index of second cell
+     * @return {@code true} if cells are neighbours and there is no wall between them
+     */
+    default boolean isConnected(int from, int to) {
+        int low = Math.min(from, to);
+        int high = Math.max(from, to);
+        int width = width();
+        if (high - low == width) {
+            return hasSouthPassage(low);
+        }
+        if (high - low == 1 && high % width != 0) {
+            return hasEastPassage(low);
+        }
+        return false;
+    }
+
+    /**
+     * Opens or closes passage between two neighbour cells.
+     *
+     * @param from index of first cell
+     * @param to   index of second cell
+     * @param open {@code true} to remove wall, {@code false} to build it
+     * @throws IllegalArgumentException if cells are not neighbours
+     */
+    default void setPassage(int from, int to, boolean open) {
+        int low = Math.min(from, to);
+        int high = Math.max(from, to);
+        int width = width();
+        if (high - low == width) {
+            setSouthPassage(low, open);
+        } else if (high - low == 1 && high % width != 0) {
+            setEastPassage(low, open);
+        } else {
+            throw new IllegalArgumentException("Cells " + from + " and " + to + " are not neighbours");
+        }
+    }
+}
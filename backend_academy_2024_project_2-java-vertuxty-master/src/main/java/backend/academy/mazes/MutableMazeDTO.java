@@ -1,30 +1,228 @@
 package backend.academy.mazes;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import lombok.AccessLevel;
 import lombok.Getter;
 
+/**
+ * Mutable representation of maze, that is used by generators.
+ * Writes go straight to {@link MazeStorage}, so storage may live on heap or off heap.
+ * After {@link #toMaze()} the DTO can't be changed any more.
+ * {@link MazeFingerprint} of maze is updated on every change, so it is ready without extra pass over maze.
+ */
 @Getter
 public class MutableMazeDTO {
 
     private final int height;
     private final int width;
-    private final Cell[][] grid;
-    private final Map<Cell, List<Cell>> mazeGraph;
+    @Getter(AccessLevel.NONE)
+    private final MazeStorage storage;
+    @Getter(AccessLevel.NONE)
+    private boolean frozen;
+    @Getter(AccessLevel.NONE)
+    private long fingerprintHigh;
+    @Getter(AccessLevel.NONE)
+    private long fingerprintLow;
 
     public MutableMazeDTO(int height, int width) {
-        this.height = height;
-        this.width = width;
-        this.grid = new Cell[height][width];
-        this.mazeGraph = new HashMap<>();
+        this(new HeapMazeStorage(height, width));
+    }
+
+    /**
+     * Create DTO over given storage.
+     *
+     * @param storage empty storage: all cells are walls and there are no passages
+     */
+    public MutableMazeDTO(MazeStorage storage) {
+        this.height = storage.height();
+        this.width = storage.width();
+        this.storage = storage;
     }
 
     public Cell getCell(Coordinate coordinate) {
-        return grid[coordinate.row()][coordinate.col()];
+        return getCell(coordinate.row(), coordinate.col());
     }
 
     public Cell getCell(int row, int col) {
-        return grid[row][col];
+        return new Cell(new Coordinate(row, col), storage.type(index(row, col)));
+    }
+
+    public int index(Coordinate coordinate) {
+        return index(coordinate.row(), coordinate.col());
+    }
+
+    public int index(int row, int col) {
+        return row * width + col;
+    }
+
+    public boolean isInside(Coordinate coordinate) {
+        return coordinate.row() >= 0 && coordinate.row() < height
+            && coordinate.col() >= 0 && coordinate.col() < width;
+    }
+
+    /**
+     * Set type of cell.
+     *
+     * @param index index of cell, {@code row * width + col}
+     * @param type  new type of cell
+     */
+    public void setType(int index, Cell.Type type) {
+        checkNotFrozen();
+        int previous = storage.type(index).ordinal();
+        if (previous != 0) {
+            toggle(MazeFingerprint.typeFeature(index, previous));
+        }
+        if (type.ordinal() != 0) {
+            toggle(MazeFingerprint.typeFeature(index, type.ordinal()));
+        }
+        storage.setType(index, type);
+    }
+
+    /**
+     * Remove wall between two neighbour cells.
+     *
+     * @param from coordinate of cell behind wall
+     * @param to   coordinate of cell behind other wall's side
+     */
+    public void addPassage(Coordinate from, Coordinate to) {
+        addPassage(index(from), index(to));
+    }
+
+    /**
+     * Remove wall between two neighbour cells.
+     *
+     * @param from index of cell behind wall
+     * @param to   index of cell behind other wall's side
+     */
+    public void addPassage(int from, int to) {
+        checkNotFrozen();
+        if (storage.isConnected(from, to)) {
+            return;
+        }
+        storage.setPassage(from, to, true);
+        int low = Math.min(from, to);
+        toggle(Math.max(from, to) - low == 1 ? MazeFingerprint.eastFeature(low) : MazeFingerprint.southFeature(low));
+    }
+
+    /**
+     * Check if there is no wall between two neighbour cells.
+     *
+     * @param from index of cell behind wall
+     * @param to   index of cell behind other wall's side
+     * @return {@code true} if passage between cells is open
+     */
+    public boolean hasPassage(int from, int to) {
+        return storage.isConnected(from, to);
+    }
+
+    /**
+     * Create {@link Maze} over storage of this DTO without copying it.
+     * DTO can't be changed after this call.
+     *
+     * @return immutable maze
+     */
+    public Maze toMaze() {
+        return toMaze(MazeOrigin.UNKNOWN);
+    }
+
+    /**
+     * Create {@link Maze} over storage of this DTO without copying it.
+     * DTO can't be changed after this call.
+     *
+     * @param origin information about how maze was generated
+     * @return immutable maze
+     */
+    public Maze toMaze(MazeOrigin origin) {
+        checkNotFrozen();
+        frozen = true;
+        return new Maze(storage, origin, fingerprint());
+    }
+
+    /**
+     * Gets fingerprint of current content of DTO.
+     *
+     * @return fingerprint of maze, that would be built from DTO now
+     */
+    public MazeFingerprint fingerprint() {
+        return MazeFingerprint.of(height, width, fingerprintHigh, fingerprintLow);
+    }
+
+    /**
+     * Copy storage of this DTO.
+     *
+     * @return independent copy of storage
+     */
+    MazeStorage copyStorage() {
+        return storage.copy();
+    }
+
+    /**
+     * Create writer of passages for other thread.
+     *
+     * @return new writer over storage of this DTO
+     * @see PassageWriter
+     */
+    public PassageWriter passageWriter() {
+        checkNotFrozen();
+        return new PassageWriter();
+    }
+
+    /**
+     * Add fingerprint of passages, written by writer, to this DTO.
+     * Must be called once for every writer after thread of writer is joined.
+     *
+     * @param writer writer of this DTO
+     */
+    public void merge(PassageWriter writer) {
+        checkNotFrozen();
+        fingerprintHigh ^= writer.high;
+        fingerprintLow ^= writer.low;
+    }
+
+    private void toggle(long feature) {
+        fingerprintHigh ^= MazeFingerprint.highKey(feature);
+        fingerprintLow ^= MazeFingerprint.lowKey(feature);
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Maze is already built from this DTO");
+        }
+    }
+
+    /**
+     * Writer of passages, that can be used in other thread than DTO.
+     * Passages are written to storage directly, their fingerprint is kept in writer
+     * and is added to DTO by {@link #merge(PassageWriter)}.
+     * Concurrent writers must write passages of cells in different aligned blocks
+     * of {@link MazeStorage#PASSAGE_BLOCK} cells.
+     */
+    public final class PassageWriter {
+
+        private long high;
+
+        private long low;
+
+        private PassageWriter() {
+        }
+
+        /**
+         * Remove wall between two neighbour cells.
+         *
+         * @param from index of cell behind wall
+         * @param to   index of cell behind other wall's side
+         * @see MutableMazeDTO#addPassage(int, int)
+         */
+        public void addPassage(int from, int to) {
+            if (storage.isConnected(from, to)) {
+                return;
+            }
+            storage.setPassage(from, to, true);
+            int cell = Math.min(from, to);
+            long feature = Math.max(from, to) - cell == 1
+                ? MazeFingerprint.eastFeature(cell)
+                : MazeFingerprint.southFeature(cell);
+            high ^= MazeFingerprint.highKey(feature);
+            low ^= MazeFingerprint.lowKey(feature);
+        }
     }
 }
@@ -0,0 +1,225 @@
+package backend.academy.mazes;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Implementation of {@link MazeStorage} outside of java heap.
+ * Types and passages of cells are kept in {@link MemorySegment}s,
+ * allocated in {@link Arena} or mapped from file,
+ * so mazes with hundreds of millions of cells don't need big heap.
+ * Layout is the same as in {@link HeapMazeStorage}:
+ * one byte per cell for {@link Cell.Type} and two bits per cell for east and south passages.
+ * Storage can be used only while its arena is alive.
+ */
+public final class SegmentMazeStorage implements MazeStorage {
+
+    private static final Cell.Type[] TYPES = Cell.Type.values();
+
+    private static final int BYTE_SHIFT = 3;
+
+    private static final int BYTE_MASK = 7;
+
+    private final int height;
+
+    private final int width;
+
+    private final MemorySegment types;
+
+    private final MemorySegment passages;
+
+    /**
+     * Create storage over given segments.
+     *
+     * @param height   count of rows in maze
+     * @param width    count of columns in maze
+     * @param types    segment of {@link #typesSize(int, int)} bytes with cell types
+     * @param passages segment of {@link #passagesSize(int, int)} bytes with passage bits
+     */
+    SegmentMazeStorage(int height, int width, MemorySegment types, MemorySegment passages) {
+        if (types.byteSize() < typesSize(height, width) || passages.byteSize() < passagesSize(height, width)) {
+            throw new IllegalArgumentException("Segments are too small for maze " + height + "x" + width);
+        }
+        this.height = height;
+        this.width = width;
+        this.types = types;
+        this.passages = passages;
+    }
+
+    /**
+     * Allocate storage in given arena.
+     * All cells are {@link Cell.Type#WALL} and all passages are closed.
+     *
+     * @param arena  arena, that owns memory of storage
+     * @param height count of rows in maze
+     * @param width  count of columns in maze
+     * @return new storage
+     */
+    public static SegmentMazeStorage allocate(Arena arena, int height, int width) {
+        MemorySegment types = arena.allocate(typesSize(height, width));
+        MemorySegment passages = arena.allocate(passagesSize(height, width));
+        types.fill((byte) 0);
+        passages.fill((byte) 0);
+        return new SegmentMazeStorage(height, width, types, passages);
+    }
+
+    /**
+     * Map storage from file.
+     * File is created if it doesn't exist, changes of storage are written to file.
+     * New file contains maze where all cells are {@link Cell.Type#WALL} and all passages are closed.
+     *
+     * @param file   file with raw storage: types of cells followed by passage bits
+     * @param arena  arena, that owns mapping
+     * @param height count of rows in maze
+     * @param width  count of columns in maze
+     * @return storage, mapped from file
+     * @throws IOException if file can't be opened or mapped
+     */
+    public static SegmentMazeStorage map(Path file, Arena arena, int height, int width) throws IOException {
+        long typesSize = typesSize(height, width);
+        try (FileChannel channel = FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+        )) {
+            MemorySegment segment = channel.map(
+                FileChannel.MapMode.READ_WRITE,
+                0,
+                typesSize + passagesSize(height, width),
+                arena
+            );
+            return new SegmentMazeStorage(
+                height,
+                width,
+                segment.asSlice(0, typesSize),
+                segment.asSlice(typesSize)
+            );
+        }
+    }
+
+    /**
+     * Gets size of types segment.
+     *
+     * @param height count of rows in maze
+     * @param width  count of columns in maze
+     * @return size of segment with cell types in bytes
+     */
+    static long typesSize(int height, int width) {
+        if (height <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Maze size must be positive: " + height + "x" + width);
+        }
+        return Math.multiplyExact(height, width);
+    }
+
+    /**
+     * Gets size of passages segment.
+     *
+     * @param height count of rows in maze
+     * @param width  count of columns in maze
+     * @return size of segment with passage bits in bytes
+     */
+    static long passagesSize(int height, int width) {
+        return (2 * typesSize(height, width) + BYTE_MASK) >>> BYTE_SHIFT;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if byte of cell is not ordinal of {@link Cell.Type}, e.g. file is corrupted
+     */
+    @Override
+    public Cell.Type type(int index) {
+        int ordinal = Byte.toUnsignedInt(types.get(ValueLayout.JAVA_BYTE, index));
+        if (ordinal >= TYPES.length) {
+            throw new IllegalStateException("Unknown cell type " + ordinal + " at index " + index);
+        }
+        return TYPES[ordinal];
+    }
+
+    @Override
+    public void setType(int index, Cell.Type type) {
+        types.set(ValueLayout.JAVA_BYTE, index, (byte) type.ordinal());
+    }
+
+    @Override
+    public boolean hasEastPassage(int index) {
+        return bit(2L * index);
+    }
+
+    @Override
+    public boolean hasSouthPassage(int index) {
+        return bit(2L * index + 1);
+    }
+
+    @Override
+    public void setEastPassage(int index, boolean open) {
+        setBit(2L * index, open);
+    }
+
+    @Override
+    public void setSouthPassage(int index, boolean open) {
+        setBit(2L * index + 1, open);
+    }
+
+    /**
+     * Copy storage to new segments, that are freed by garbage collector.
+     *
+     * @return independent copy of this storage
+     */
+    @Override
+    public MazeStorage copy() {
+        Arena arena = Arena.ofAuto();
+        return new SegmentMazeStorage(
+            height,
+            width,
+            arena.allocate(types.byteSize()).copyFrom(types),
+            arena.allocate(passages.byteSize()).copyFrom(passages)
+        );
+    }
+
+    /**
+     * Gets segment with types of cells, one byte per cell.
+     *
+     * @return segment with types
+     */
+    MemorySegment types() {
+        return types;
+    }
+
+    /**
+     * Gets segment with passage bits, bit {@code 2 * index} is east passage
+     * and bit {@code 2 * index + 1} is south passage of cell.
+     *
+     * @return segment with passages
+     */
+    MemorySegment passages() {
+        return passages;
+    }
+
+    private boolean bit(long position) {
+        return (passages.get(ValueLayout.JAVA_BYTE, position >>> BYTE_SHIFT) & (1 << (position & BYTE_MASK))) != 0;
+    }
+
+    private void setBit(long position, boolean value) {
+        long offset = position >>> BYTE_SHIFT;
+        byte word = passages.get(ValueLayout.JAVA_BYTE, offset);
+        int mask = 1 << (position & BYTE_MASK);
+        passages.set(ValueLayout.JAVA_BYTE, offset, (byte) (value ? word | mask : word & ~mask));
+    }
+}
@@ -0,0 +1,187 @@
+package backend.academy.mazes;
+
+/**
+ * Implementation of {@link MazeStorage}, split into chunks of {@value #CHUNK_SIZE} cells.
+ * Every chunk keeps one byte per cell for {@link Cell.Type}
+ * and two bits per cell for east and south passages, like {@link HeapMazeStorage}.
+ *
+ * <p>Persistent edits ({@link #withType(int, Cell.Type)}, {@link #withPassage(int, int, boolean)})
+ * return new storage, that shares all chunks except changed one with this storage.
+ * So one edit costs O(chunk) plus copy of chunk references instead of O(height * width).
+ * Setters of {@link MazeStorage} change chunks in place,
+ * they must be used only while storage is not shared with other versions.
+ *
+ * @see Maze#withType(int, Cell.Type)
+ */
+public final class TiledMazeStorage implements MazeStorage {
+
+    static final int CHUNK_SIZE = 4096;
+
+    private static final Cell.Type[] TYPES = Cell.Type.values();
+
+    private static final int CHUNK_SHIFT = 12;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final int WORD_SHIFT = 6;
+
+    private static final int WORDS_PER_CHUNK = 2 * CHUNK_SIZE >>> WORD_SHIFT;
+
+    private final int height;
+
+    private final int width;
+
+    private final byte[][] types;
+
+    private final long[][] passages;
+
+    /**
+     * Create storage where all cells are {@link Cell.Type#WALL} and all passages are closed.
+     *
+     * @param height count of rows in maze
+     * @param width  count of columns in maze
+     */
+    public TiledMazeStorage(int height, int width) {
+        if (height <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Maze size must be positive: " + height + "x" + width);
+        }
+        int chunks = (int) ((Math.multiplyExact(height, width) + (long) CHUNK_MASK) >>> CHUNK_SHIFT);
+        this.height = height;
+        this.width = width;
+        this.types = new byte[chunks][];
+        this.passages = new long[chunks][];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            types[chunk] = new byte[CHUNK_SIZE];
+            passages[chunk] = new long[WORDS_PER_CHUNK];
+        }
+    }
+
+    private TiledMazeStorage(int height, int width, byte[][] types, long[][] passages) {
+        this.height = height;
+        this.width = width;
+        this.types = types;
+        this.passages = passages;
+    }
+
+    /**
+     * Copy any storage to tiled storage.
+     *
+     * @param storage storage with cells and passages
+     * @return tiled storage with same content
+     */
+    static TiledMazeStorage copyOf(MazeStorage storage) {
+        if (storage instanceof TiledMazeStorage tiled) {
+            return tiled.deepCopy();
+        }
+        TiledMazeStorage result = new TiledMazeStorage(storage.height(), storage.width());
+        for (int index = 0; index < storage.size(); index++) {
+            result.setType(index, storage.type(index));
+            result.setEastPassage(index, storage.hasEastPassage(index));
+            result.setSouthPassage(index, storage.hasSouthPassage(index));
+        }
+        return result;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public Cell.Type type(int index) {
+        return TYPES[types[index >>> CHUNK_SHIFT][index & CHUNK_MASK]];
+    }
+
+    @Override
+    public void setType(int index, Cell.Type type) {
+        types[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = (byte) type.ordinal();
+    }
+
+    @Override
+    public boolean hasEastPassage(int index) {
+        return bit(passages[index >>> CHUNK_SHIFT], 2 * (index & CHUNK_MASK));
+    }
+
+    @Override
+    public boolean hasSouthPassage(int index) {
+        return bit(passages[index >>> CHUNK_SHIFT], 2 * (index & CHUNK_MASK) + 1);
+    }
+
+    @Override
+    public void setEastPassage(int index, boolean open) {
+        setBit(passages[index >>> CHUNK_SHIFT], 2 * (index & CHUNK_MASK), open);
+    }
+
+    @Override
+    public void setSouthPassage(int index, boolean open) {
+        setBit(passages[index >>> CHUNK_SHIFT], 2 * (index & CHUNK_MASK) + 1, open);
+    }
+
+    @Override
+    public MazeStorage copy() {
+        return deepCopy();
+    }
+
+    /**
+     * Create new version of storage with changed type of one cell.
+     * This storage is not changed.
+     *
+     * @param index index of cell
+     * @param type  new type of cell
+     * @return new storage, sharing unchanged chunks with this storage
+     */
+    TiledMazeStorage withType(int index, Cell.Type type) {
+        byte[][] newTypes = types.clone();
+        int chunk = index >>> CHUNK_SHIFT;
+        newTypes[chunk] = types[chunk].clone();
+        newTypes[chunk][index & CHUNK_MASK] = (byte) type.ordinal();
+        return new TiledMazeStorage(height, width, newTypes, passages);
+    }
+
+    /**
+     * Create new version of storage with opened or closed passage between two neighbour cells.
+     * This storage is not changed.
+     *
+     * @param from index of first cell
+     * @param to   index of second cell
+     * @param open {@code true} to remove wall, {@code false} to build it
+     * @return new storage, sharing unchanged chunks with this storage
+     * @throws IllegalArgumentException if cells are not neighbours
+     */
+    TiledMazeStorage withPassage(int from, int to, boolean open) {
+        long[][] newPassages = passages.clone();
+        int chunk = Math.min(from, to) >>> CHUNK_SHIFT;
+        newPassages[chunk] = passages[chunk].clone();
+        TiledMazeStorage result = new TiledMazeStorage(height, width, types, newPassages);
+        result.setPassage(from, to, open);
+        return result;
+    }
+
+    private TiledMazeStorage deepCopy() {
+        byte[][] typesCopy = new byte[types.length][];
+        long[][] passagesCopy = new long[passages.length][];
+        for (int chunk = 0; chunk < types.length; chunk++) {
+            typesCopy[chunk] = types[chunk].clone();
+            passagesCopy[chunk] = passages[chunk].clone();
+        }
+        return new TiledMazeStorage(height, width, typesCopy, passagesCopy);
+    }
+
+    private static boolean bit(long[] words, int position) {
+        return (words[position >>> WORD_SHIFT] & (1L << position)) != 0;
+    }
+
+    private static void setBit(long[] words, int position, boolean value) {
+        int word = position >>> WORD_SHIFT;
+        if (value) {
+            words[word] |= 1L << position;
+        } else {
+            words[word] &= ~(1L << position);
+        }
+    }
+}
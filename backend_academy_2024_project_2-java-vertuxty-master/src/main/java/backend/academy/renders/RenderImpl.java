@@ -3,8 +3,8 @@ package backend.academy.renders;
 import backend.academy.mazes.Cell;
 import backend.academy.mazes.Coordinate;
 import backend.academy.mazes.Maze;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
 import org.jline.utils.AttributedString;
 import org.jline.utils.AttributedStringBuilder;
 import org.jline.utils.AttributedStyle;
@@ -28,9 +28,11 @@ public class RenderImpl implements Renderer {
     @Override
     public String render(Maze maze, List<Coordinate> path) {
 
-        Map<Cell, List<Cell>> mazeGraph = maze.mazeGraph();
-        Cell[][] grid = maze.getGrid();
         AttributedString[][] attributedGrid = new AttributedString[maze.height()][maze.width()];
+        BitSet pathCells = new BitSet(maze.height() * maze.width());
+        for (Coordinate coordinate : path) {
+            pathCells.set(maze.index(coordinate.row(), coordinate.col()));
+        }
 
         AttributedStringBuilder sb = new AttributedStringBuilder();
         initCeilBorderWall(sb, maze.width() * 2 + 1);
@@ -41,12 +43,14 @@ public class RenderImpl implements Renderer {
             AttributedStringBuilder downRow = createNewMazeRow();
 
             for (int col = 0; col < maze.width(); col++) {
-                Cell cell = grid[row][col];
+                Cell cell = maze.cellAt(row, col);
 
                 defineCellAttributeStyle(
                     path,
+                    pathCells,
                     attributedGrid,
-                    cell
+                    cell,
+                    maze.width()
                 );
 
                 currRow.append(attributedGrid[row][col]);
@@ -54,12 +58,13 @@ public class RenderImpl implements Renderer {
                 if (row < maze.height() - 1) {
 
                     renderPartOfRow(
-                        mazeGraph,
+                        maze.hasSouthPassage(row, col),
                         attributedGrid,
                         downRow,
                         path,
+                        pathCells,
                         cell,
-                        grid[row + 1][col]
+                        maze.cellAt(row + 1, col)
                     );
 
                 } else {
@@ -69,12 +74,13 @@ public class RenderImpl implements Renderer {
                 if (col < maze.width() - 1) {
 
                     renderPartOfRow(
-                        mazeGraph,
+                        maze.hasEastPassage(row, col),
                         attributedGrid,
                         currRow,
                         path,
+                        pathCells,
                         cell,
-                        grid[row][col + 1]
+                        maze.cellAt(row, col + 1)
                     );
 
                 } else {
@@ -94,21 +100,24 @@ public class RenderImpl implements Renderer {
     }
 
     private static void renderPartOfRow(
-        Map<Cell, List<Cell>> mazeGraph,
+        boolean hasPassage,
         AttributedString[][] attributedGrid,
         AttributedStringBuilder rowAttributed,
         List<Coordinate> path,
+        BitSet pathCells,
         Cell cell,
         Cell nearCell
     ) {
         Coordinate coordinate = cell.coordinate();
         Coordinate nearCellCoordinate = nearCell.coordinate();
         AttributedStyle cellAttributeStyle = attributedGrid[coordinate.row()][coordinate.col()].styleAt(0);
-        if (mazeGraph.get(cell).contains(nearCell)) {
+        if (hasPassage) {
             defineCellAttributeStyle(
                 path,
+                pathCells,
                 attributedGrid,
-                nearCell
+                nearCell,
+                attributedGrid[0].length
             );
             AttributedStyle nearCellAttributedStyle =
                 attributedGrid[nearCellCoordinate.row()][nearCellCoordinate.col()].styleAt(0);
@@ -147,12 +156,14 @@ public class RenderImpl implements Renderer {
 
     private static void defineCellAttributeStyle(
         List<Coordinate> path,
+        BitSet pathCells,
         AttributedString[][] attributedGrid,
-        Cell cell
+        Cell cell,
+        int width
     ) {
-        boolean locatedInPath = path.contains(cell.coordinate());
         int row = cell.coordinate().row();
         int col = cell.coordinate().col();
+        boolean locatedInPath = pathCells.get(row * width + col);
         if (attributedGrid[row][col] != null) {
             return;
         }
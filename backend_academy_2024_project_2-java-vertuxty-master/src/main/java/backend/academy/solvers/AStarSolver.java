@@ -1,18 +1,18 @@
 package backend.academy.solvers;
 
-import backend.academy.mazes.Cell;
-import backend.academy.mazes.Coordinate;
 import backend.academy.mazes.Maze;
+import backend.academy.mazes.MazeAdjacency;
 import backend.academy.solvers.dto.DTOInitialization;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.PriorityQueue;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
 /**
  * Implementation of {@link AbstractSolver}.
  * Find shortest-weight path in a maze by using A-star algorithm.
+ * Open cells are kept in {@link IndexedMinHeap} by {@code dist + heuristic},
+ * so priority of cell is decreased in place, when shorter path to it is found.
+ * Heuristic is manhattan distance: weight of every cell, except walls, is at least {@code 1},
+ * so heuristic is consistent and path is the shortest one.
  */
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class AStarSolver extends AbstractSolver {
@@ -21,57 +21,53 @@ public class AStarSolver extends AbstractSolver {
      * {@inheritDoc}
      */
     @Override
-    public List<Coordinate> solve(Maze maze, Coordinate start, Coordinate end) {
+    public int[] solveIndices(Maze maze, int start, int end) {
         int n = maze.height() * maze.width();
+        int width = maze.width();
 
-        List<Integer> dist = new ArrayList<>();
-        List<Coordinate> prev = new ArrayList<>();
+        int[] dist = new int[n];
+        int[] prev = new int[n];
 
         DTOInitialization.Builder builder = new DTOInitialization.Builder();
         DTOInitialization dtoInitialization = builder.setDistance(dist)
             .setPrevious(prev)
-            .setSize(n)
-            .setStartValue(maze.getGrid()[start.row()][start.col()].type().weight())
-            .setStartPos(start.row() * maze.width() + start.col())
+            .setStartValue(maze.weightAt(start))
+            .setStartPos(start)
             .build();
         init(dtoInitialization);
 
-        PriorityQueue<Cell> priorityQueue = initPQ(
-            maze.getGrid()[start.row()][start.col()],
-            (a, b) -> pathLengthToTheGoal(dist, a.coordinate(), end, maze.width())
-                - pathLengthToTheGoal(dist, b.coordinate(), end, maze.width())
-        );
+        IndexedMinHeap open = new IndexedMinHeap(n);
+        open.push(start, dist[start] + heuristics(start, end, width));
 
-        while (!priorityQueue.isEmpty()) {
-            Cell v = priorityQueue.poll();
-            Coordinate vCoordinate = v.coordinate();
-            if (vCoordinate.row() == end.row() && vCoordinate.col() == end.col()) {
+        MazeAdjacency adjacency = maze.adjacency();
+
+        while (!open.isEmpty()) {
+            int v = open.poll();
+            if (v == end) {
                 break;
             }
-            int vIndex = getPosCell(v, maze.width());
-            for (Cell u : maze.mazeGraph().get(v)) {
-                int uIndex = getPosCell(u, maze.width());
-                int w = u.type().weight();
-                int score = dist.get(vIndex) + w;
-                if (score < dist.get(uIndex)) {
-                    prev.set(uIndex, new Coordinate(vCoordinate.row(), vCoordinate.col()));
-                    dist.set(uIndex, score);
-                    if (!priorityQueue.contains(u)) {
-                        priorityQueue.add(u);
-                    }
+            for (int edge = adjacency.offset(v); edge < adjacency.offset(v + 1); edge++) {
+                int u = adjacency.target(edge);
+                int score = dist[v] + adjacency.weight(edge);
+                if (score < dist[u]) {
+                    prev[u] = v;
+                    dist[u] = score;
+                    open.push(u, score + heuristics(u, end, width));
                 }
             }
         }
-        return retracePathSolver(prev, start, end, maze.width(), dist.get(getPosCord(end, maze.width())));
-    }
-
-    private int heuristics(Coordinate from, Coordinate to) {
-        return Math.abs(from.col() - to.col()) + Math.abs(from.row() - to.row());
+        return retracePath(prev, start, end, dist[end]);
     }
 
-    private int pathLengthToTheGoal(
-        List<Integer> dist, Coordinate start, Coordinate end, int width
-    ) {
-        return dist.get(start.col() + start.row() * width) + heuristics(start, end);
+    /**
+     * Lower bound of weight of path between cells.
+     *
+     * @param from  index of cell
+     * @param to    index of goal
+     * @param width width of maze
+     * @return estimated weight of path
+     */
+    protected int heuristics(int from, int to, int width) {
+        return Math.abs(from % width - to % width) + Math.abs(from / width - to / width);
     }
 }
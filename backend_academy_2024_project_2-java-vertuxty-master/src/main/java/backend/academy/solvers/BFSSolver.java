@@ -1,12 +1,8 @@
 package backend.academy.solvers;
 
-import backend.academy.mazes.Cell;
-import backend.academy.mazes.Coordinate;
 import backend.academy.mazes.Maze;
+import backend.academy.mazes.MazeAdjacency;
 import backend.academy.solvers.dto.DTOInitialization;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.List;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -19,47 +15,43 @@ import lombok.NoArgsConstructor;
     /**
      * {@inheritDoc}
      * */
-    @Override public List<Coordinate> solve(Maze maze, Coordinate start, Coordinate end) {
+    @Override public int[] solveIndices(Maze maze, int start, int end) {
 
         int n = maze.height() * maze.width();
-        int width = maze.width();
 
-        List<Integer> dist = new ArrayList<>();
-        List<Coordinate> prev = new ArrayList<>();
+        int[] dist = new int[n];
+        int[] prev = new int[n];
 
         DTOInitialization.Builder builder = new DTOInitialization.Builder();
         DTOInitialization dtoInitialization = builder.setDistance(dist)
             .setPrevious(prev)
-            .setSize(n)
             .setStartValue(0)
-            .setStartPos(start.row() * maze.width() + start.col())
+            .setStartPos(start)
             .build();
         init(dtoInitialization);
 
-        ArrayDeque<Cell> deque = new ArrayDeque<>();
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
 
-        deque.add(maze.getGrid()[start.row()][start.col()]);
+        MazeAdjacency adjacency = maze.adjacency();
 
-        boolean[] used = new boolean[n];
-        used[start.col() + start.row() * width] = true;
-
-        while (!deque.isEmpty()) {
-            Cell v = deque.pollFirst();
-            Coordinate vCoordinate = v.coordinate();
-            if (vCoordinate.row() == end.row() && vCoordinate.col() == end.col()) {
+        while (head < tail) {
+            int v = queue[head++];
+            if (v == end) {
                 break;
             }
-            int vIndex = getPosCell(v, width);
-            for (Cell u : maze.mazeGraph().get(v)) {
-                int uIndex = getPosCell(u, width);
-                if (!used[uIndex]) { // можно без used, как в случае с Dijkstra, но тогда они почти ничем не отличаются)
-                    dist.set(uIndex, dist.get(vIndex) + 1);
-                    used[uIndex] = true;
-                    prev.set(uIndex, new Coordinate(vCoordinate.row(), vCoordinate.col()));
-                    deque.addLast(u);
+            for (int edge = adjacency.offset(v); edge < adjacency.offset(v + 1); edge++) {
+                int u = adjacency.target(edge);
+                // можно без used, как в случае с Dijkstra, но тогда они почти ничем не отличаются)
+                if (dist[u] == INF) {
+                    dist[u] = dist[v] + 1;
+                    prev[u] = v;
+                    queue[tail++] = u;
                 }
             }
         }
-        return retracePathSolver(prev, start, end, maze.width(), dist.get(getPosCord(end, maze.width())));
+        return retracePath(prev, start, end, dist[end]);
     }
 }
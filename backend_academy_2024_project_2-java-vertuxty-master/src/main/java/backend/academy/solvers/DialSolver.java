@@ -0,0 +1,139 @@
+package backend.academy.solvers;
+
+import backend.academy.mazes.Cell;
+import backend.academy.mazes.Maze;
+import backend.academy.mazes.MazeAdjacency;
+import backend.academy.solvers.dto.DTOInitialization;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.Arrays;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Implementation of {@link AbstractSolver}.
+ * Find shortest-weight path in a maze by using Dial's algorithm.
+ * Weights of cells are small integers, so all queued cells have distances from {@code d} to {@code d + C},
+ * where {@code d} is distance of last taken cell and {@code C} is max weight of cell.
+ * Cells are kept in circular array of {@code C + 1} buckets indexed by distance modulo {@code C + 1},
+ * every bucket is doubly linked list on primitive arrays, so cell is moved to other bucket in O(1)
+ * and path is found in O(n + C) time without comparisons of distances.
+ */
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DialSolver extends AbstractSolver {
+
+    private static final int BUCKETS = Arrays.stream(Cell.Type.values())
+        .mapToInt(Cell.Type::weight)
+        .max()
+        .orElseThrow() + 1;
+
+    private static final int NONE = -1;
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if path goes through cell with negative weight
+     */
+    @Override
+    public int[] solveIndices(Maze maze, int start, int end) {
+        int n = maze.height() * maze.width();
+
+        int[] dist = new int[n];
+        int[] prev = new int[n];
+
+        DTOInitialization.Builder builder = new DTOInitialization.Builder();
+        DTOInitialization dtoInitialization = builder.setDistance(dist)
+            .setPrevious(prev)
+            .setStartValue(maze.weightAt(start))
+            .setStartPos(start)
+            .build();
+        init(dtoInitialization);
+
+        Buckets buckets = new Buckets(n);
+        buckets.add(start, dist[start]);
+
+        MazeAdjacency adjacency = maze.adjacency();
+        int current = dist[start];
+
+        while (!buckets.isEmpty()) {
+            int v = buckets.first(current);
+            while (v == NONE) {
+                v = buckets.first(++current);
+            }
+            buckets.remove(v, current);
+            if (v == end) {
+                break;
+            }
+            for (int edge = adjacency.offset(v); edge < adjacency.offset(v + 1); edge++) {
+                int weight = adjacency.weight(edge);
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Negative weight of cell " + adjacency.target(edge));
+                }
+                int u = adjacency.target(edge);
+                int score = dist[v] + weight;
+                if (score < dist[u]) {
+                    if (dist[u] != INF) {
+                        buckets.remove(u, dist[u]);
+                    }
+                    prev[u] = v;
+                    dist[u] = score;
+                    buckets.add(u, score);
+                }
+            }
+        }
+        return retracePath(prev, start, end, dist[end]);
+    }
+
+    /**
+     * Circular array of buckets of cells.
+     * Cell is removed from bucket, when it is taken or its distance is decreased,
+     * so every cell is in one bucket at most.
+     */
+    @SuppressFBWarnings(value = "PL_PARALLEL_LISTS", justification = "Linked lists on primitive arrays")
+    private static final class Buckets {
+
+        private final int[] head = new int[BUCKETS];
+
+        private final int[] next;
+
+        private final int[] previous;
+
+        private int size;
+
+        Buckets(int capacity) {
+            this.next = new int[capacity];
+            this.previous = new int[capacity];
+            Arrays.fill(head, NONE);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int first(int distance) {
+            return head[Math.floorMod(distance, BUCKETS)];
+        }
+
+        void add(int cell, int distance) {
+            int bucket = Math.floorMod(distance, BUCKETS);
+            next[cell] = head[bucket];
+            previous[cell] = NONE;
+            if (head[bucket] != NONE) {
+                previous[head[bucket]] = cell;
+            }
+            head[bucket] = cell;
+            size++;
+        }
+
+        void remove(int cell, int distance) {
+            if (previous[cell] == NONE) {
+                head[Math.floorMod(distance, BUCKETS)] = next[cell];
+            } else {
+                next[previous[cell]] = next[cell];
+            }
+            if (next[cell] != NONE) {
+                previous[next[cell]] = previous[cell];
+            }
+            size--;
+        }
+    }
+}
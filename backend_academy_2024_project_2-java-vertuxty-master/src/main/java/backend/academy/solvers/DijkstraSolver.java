@@ -0,0 +1,23 @@
+package backend.academy.solvers;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Implementation of {@link AbstractSolver}.
+ * Find shortest-weight path in a maze by using Dijkstra's algorithm:
+ * A-star search of {@link AStarSolver} without heuristic.
+ */
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DijkstraSolver extends AStarSolver {
+
+    /**
+     * Dijkstra's algorithm doesn't estimate rest of path.
+     *
+     * @return always {@code 0}
+     */
+    @Override
+    protected int heuristics(int from, int to, int width) {
+        return 0;
+    }
+}
@@ -0,0 +1,32 @@
+package backend.academy.solvers;
+
+import backend.academy.mazes.Coordinate;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Unmodifiable list of {@link Coordinate}s over path of cell indices.
+ * Coordinates are not stored, they are created on access.
+ */
+final class IndexPath extends AbstractList<Coordinate> implements RandomAccess {
+
+    private final int[] path;
+
+    private final int width;
+
+    IndexPath(int[] path, int width) {
+        this.path = path;
+        this.width = width;
+    }
+
+    @Override
+    public Coordinate get(int index) {
+        int cell = path[index];
+        return new Coordinate(cell / width, cell % width);
+    }
+
+    @Override
+    public int size() {
+        return path.length;
+    }
+}
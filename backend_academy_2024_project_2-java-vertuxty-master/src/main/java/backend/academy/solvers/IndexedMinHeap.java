@@ -0,0 +1,121 @@
+package backend.academy.solvers;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of cells with priorities, indexed by cell.
+ * Heap is kept in primitive arrays: {@code heap} of cells, {@code pos} of cell in heap
+ * and {@code key} of cell, so priority of cell, that is already in heap, can be decreased
+ * in O(log n) time with restoring of heap order, and check of presence takes O(1).
+ */
+final class IndexedMinHeap {
+
+    private static final int ABSENT = -1;
+
+    private final int[] heap;
+
+    private final int[] pos;
+
+    private final int[] key;
+
+    private int size;
+
+    /**
+     * Create empty heap for cells from {@code 0} to {@code capacity - 1}.
+     *
+     * @param capacity count of cells
+     */
+    IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.pos = new int[capacity];
+        this.key = new int[capacity];
+        Arrays.fill(pos, ABSENT);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(int cell) {
+        return pos[cell] != ABSENT;
+    }
+
+    /**
+     * Insert cell with given priority or decrease priority of cell, that is already in heap.
+     * Greater priority of cell in heap is not changed.
+     *
+     * @param cell     cell
+     * @param priority new priority of cell
+     */
+    void push(int cell, int priority) {
+        if (contains(cell)) {
+            if (priority < key[cell]) {
+                key[cell] = priority;
+                siftUp(pos[cell]);
+            }
+            return;
+        }
+        key[cell] = priority;
+        heap[size] = cell;
+        pos[cell] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Remove cell with minimal priority.
+     *
+     * @return removed cell
+     * @throws IllegalStateException if heap is empty
+     */
+    int poll() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        int min = heap[0];
+        pos[min] = ABSENT;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            pos[heap[0]] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    private void siftUp(int index) {
+        int cell = heap[index];
+        int current = index;
+        while (current > 0) {
+            int parent = (current - 1) >>> 1;
+            if (key[heap[parent]] <= key[cell]) {
+                break;
+            }
+            move(heap[parent], current);
+            current = parent;
+        }
+        move(cell, current);
+    }
+
+    private void siftDown(int index) {
+        int cell = heap[index];
+        int current = index;
+        int half = size >>> 1;
+        while (current < half) {
+            int child = 2 * current + 1;
+            if (child + 1 < size && key[heap[child + 1]] < key[heap[child]]) {
+                child++;
+            }
+            if (key[cell] <= key[heap[child]]) {
+                break;
+            }
+            move(heap[child], current);
+            current = child;
+        }
+        move(cell, current);
+    }
+
+    private void move(int cell, int index) {
+        heap[index] = cell;
+        pos[cell] = index;
+    }
+}
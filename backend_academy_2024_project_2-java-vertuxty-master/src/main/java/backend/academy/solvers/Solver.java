@@ -6,18 +6,35 @@ import java.util.List;
 
 /**
  * A interface for implementing path solvers algorithms in maze.
- * Defines method for finding path and default method for retrace path.
+ * Defines method for finding path by indices of cells
+ * and default method for finding path by coordinates.
  * */
 public interface Solver {
 
     /**
      * Find path in the maze from from to to.
      * May be implemented for pathfinding with weighted elements.
+     * Cells are identified by index {@code row * width + col}.
+     *
+     * @param maze {@link Maze} that need to be solved
+     * @param start index of starter point in path.
+     * @param end index of final point in path.
+     * @return indices of cells in path, ordered from from to to. Empty if there is no path.
+     * */
+    int[] solveIndices(Maze maze, int start, int end);
+
+    /**
+     * Find path in the maze from from to to.
+     * Thin adapter over {@link #solveIndices(Maze, int, int)},
+     * coordinates of path are created on access.
      *
      * @param maze {@link Maze} that need to be solved
      * @param start starter point in path.
      * @param end final point in path.
      * @return a list of {@link Coordinate} in path, ordered from from to to.
      * */
-    List<Coordinate> solve(Maze maze, Coordinate start, Coordinate end);
+    default List<Coordinate> solve(Maze maze, Coordinate start, Coordinate end) {
+        int[] path = solveIndices(maze, maze.index(start.row(), start.col()), maze.index(end.row(), end.col()));
+        return new IndexPath(path, maze.width());
+    }
 }
@@ -28,7 +28,19 @@ public class SolverFactory {
          * Using weight of cell.
          * @see AStarSolver
          * */
-        ASTAR(AStarSolver::new);
+        ASTAR(AStarSolver::new),
+        /**
+         * Dijkstra's algorithm solver.
+         * Using weight of cell.
+         * @see DijkstraSolver
+         * */
+        DIJKSTRA(DijkstraSolver::new),
+        /**
+         * Dial's algorithm solver with bucket queue.
+         * Using weight of cell.
+         * @see DialSolver
+         * */
+        DIAL(DialSolver::new);
 
         private final Supplier<Solver> constructor;
 
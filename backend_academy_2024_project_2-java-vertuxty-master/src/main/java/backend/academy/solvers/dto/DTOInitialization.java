@@ -1,7 +1,5 @@
 package backend.academy.solvers.dto;
 
-import backend.academy.mazes.Coordinate;
-import java.util.List;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -10,35 +8,28 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PROTECTED)
 public class DTOInitialization {
 
-    private final List<Integer> dist;
-    private final List<Coordinate> prev;
-    private final int n;
+    private final int[] dist;
+    private final int[] prev;
     private final int startValue;
     private final int startPos;
 
     public static class Builder {
 
-        private List<Integer> dist;
-        private List<Coordinate> prev;
-        private Integer n;
+        private int[] dist;
+        private int[] prev;
         private Integer startValue;
         private Integer startPos;
 
-        public Builder setDistance(List<Integer> dist) {
+        public Builder setDistance(int[] dist) {
             this.dist = dist;
             return this;
         }
 
-        public Builder setPrevious(List<Coordinate> previous) {
+        public Builder setPrevious(int[] previous) {
             this.prev = previous;
             return this;
         }
 
-        public Builder setSize(int n) {
-            this.n = n;
-            return this;
-        }
-
         public Builder setStartValue(int startValue) {
             this.startValue = startValue;
             return this;
@@ -52,12 +43,14 @@ public class DTOInitialization {
         public DTOInitialization build() {
             if (startValue == null
                 || startPos == null
-                || n == null
                 || dist == null
                 || prev == null) {
                 throw new IllegalStateException("Expected all args to be set in DTOInitialization builder");
             }
-            return new DTOInitialization(dist, prev, n, startValue, startPos);
+            if (dist.length != prev.length) {
+                throw new IllegalStateException("Expected arrays of distances and previous nodes of same size");
+            }
+            return new DTOInitialization(dist, prev, startValue, startPos);
         }
     }
 }
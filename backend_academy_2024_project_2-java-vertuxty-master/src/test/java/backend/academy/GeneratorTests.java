@@ -1,15 +1,40 @@
 package backend.academy;
 
+import backend.academy.generators.BatchGenerator;
+import backend.academy.generators.Braid;
+import backend.academy.generators.ConcurrentDisjointSetUnion;
+import backend.academy.generators.DisjointSetUnion;
 import backend.academy.generators.Generator;
 import backend.academy.generators.GeneratorFactory;
+import backend.academy.generators.GrowingTreeGenerator;
+import backend.academy.generators.MazeCache;
+import backend.academy.generators.RandomSource;
+import backend.academy.generators.StreamingGenerator;
+import backend.academy.generators.Terrain;
+import backend.academy.mazes.Cell;
+import backend.academy.mazes.HeapMazeStorage;
 import backend.academy.mazes.Maze;
+import backend.academy.mazes.MazeAdjacency;
+import backend.academy.mazes.MutableMazeDTO;
 import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import backend.academy.utils.Config;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class GeneratorTests {
 
@@ -60,5 +85,464 @@ public class GeneratorTests {
             assertThat(generatorFirst.getClass().getName()).isNotEqualTo(generatorSecond.getClass().getName());
         }
     }
-}
 
+    @Nested class SeedTest {
+
+        @Test void regenerateFromSeedTest() {
+            for (GeneratorFactory.GeneratorType generatorType : GeneratorFactory.GeneratorType.values()) {
+                Maze maze = GeneratorFactory.createGenerator(generatorType, true).generate(23, 17);
+                Maze regenerated = GeneratorFactory.createGenerator(generatorType, true)
+                    .generate(23, 17, maze.origin().seed());
+                assertThat(regenerated.fingerprint()).isEqualTo(maze.fingerprint());
+                assertThat(regenerated.origin()).isEqualTo(maze.origin());
+            }
+        }
+
+        @Test void seededGeneratorTest() {
+            for (GeneratorFactory.GeneratorType generatorType : GeneratorFactory.GeneratorType.values()) {
+                Generator first = GeneratorFactory.createGenerator(generatorType, false, RandomSource.seeded(42));
+                Generator second = GeneratorFactory.createGenerator(generatorType, false, RandomSource.seeded(42));
+                Maze firstMaze = first.generate(20, 20);
+                assertThat(second.generate(20, 20).fingerprint()).isEqualTo(firstMaze.fingerprint());
+                assertThat(second.generate(20, 20).fingerprint()).isEqualTo(first.generate(20, 20).fingerprint());
+                assertThat(first.generate(20, 20).fingerprint()).isNotEqualTo(firstMaze.fingerprint());
+            }
+        }
+    }
+
+    @Nested class PerfectMazeTest {
+
+        @Test void spanningTreeTest() {
+            for (GeneratorFactory.GeneratorType generatorType : GeneratorFactory.GeneratorType.values()) {
+                Generator generator = GeneratorFactory.createGenerator(generatorType, false);
+                assertSpanningTree(generator.generate(150, 200));
+                assertSpanningTree(generator.generate(1, 30));
+            }
+        }
+
+        @Test void growingTreeStrategiesTest() {
+            for (GrowingTreeGenerator.Strategy strategy : GrowingTreeGenerator.Strategy.values()) {
+                Generator generator =
+                    GeneratorFactory.createGrowingTreeGenerator(strategy, false, RandomSource.create());
+                assertSpanningTree(generator.generate(1000, 1000));
+            }
+        }
+
+        void assertSpanningTree(Maze maze) {
+            MazeAdjacency adjacency = maze.adjacency();
+            int size = adjacency.size();
+            assertThat(adjacency.edgeCount()).isEqualTo(2 * (size - 1));
+            boolean[] visited = new boolean[size];
+            int[] stack = new int[size];
+            int top = 0;
+            int count = 1;
+            visited[0] = true;
+            stack[top++] = 0;
+            while (top > 0) {
+                int v = stack[--top];
+                for (int edge = adjacency.offset(v); edge < adjacency.offset(v + 1); edge++) {
+                    int u = adjacency.target(edge);
+                    if (!visited[u]) {
+                        visited[u] = true;
+                        count++;
+                        stack[top++] = u;
+                    }
+                }
+            }
+            assertThat(count).isEqualTo(size);
+        }
+    }
+
+    @Nested class ParallelTest {
+
+        @Test void parallelSpanningTreeTest() {
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                for (GeneratorFactory.GeneratorType tileType : GeneratorFactory.GeneratorType.values()) {
+                    Generator generator =
+                        GeneratorFactory.createParallelGenerator(tileType, false, RandomSource.create(), 16, pool);
+                    Maze maze = generator.generate(101, 131);
+                    new PerfectMazeTest().assertSpanningTree(maze);
+                    Maze regenerated = GeneratorFactory
+                        .createParallelGenerator(tileType, false, RandomSource.create(), 16, pool)
+                        .generate(101, 131, maze.origin().seed());
+                    assertThat(regenerated.fingerprint()).isEqualTo(maze.fingerprint());
+                    assertThat(new Maze(maze.mazeGraph(), maze.getGrid()).fingerprint())
+                        .isEqualTo(maze.fingerprint());
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        @Test void parallelWithCyclesTest() {
+            Generator generator = GeneratorFactory.createParallelGenerator(
+                GeneratorFactory.GeneratorType.KRUSKAL, true, RandomSource.create(), 8, ForkJoinPool.commonPool());
+            Maze maze = generator.generate(64, 64);
+            assertThat(maze.adjacency().edgeCount()).isGreaterThanOrEqualTo(2 * (64 * 64 - 1));
+        }
+    }
+
+    @Nested class SharedGeneratorTest {
+
+        @Test void sharedBetweenThreadsTest() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                for (GeneratorFactory.GeneratorType generatorType : GeneratorFactory.GeneratorType.values()) {
+                    Generator generator = GeneratorFactory.createGenerator(generatorType, true);
+                    List<Future<Maze>> futures = new ArrayList<>();
+                    for (int seed = 0; seed < 40; seed++) {
+                        long mazeSeed = seed;
+                        futures.add(executor.submit(() -> generator.generate(10 + (int) mazeSeed, 20, mazeSeed)));
+                    }
+                    for (int seed = 0; seed < 40; seed++) {
+                        Maze expected = GeneratorFactory.createGenerator(generatorType, true)
+                            .generate(10 + seed, 20, seed);
+                        assertThat(futures.get(seed).get().fingerprint()).isEqualTo(expected.fingerprint());
+                    }
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        @Test void reusedBuffersTest() {
+            for (GeneratorFactory.GeneratorType generatorType : GeneratorFactory.GeneratorType.values()) {
+                Generator generator = GeneratorFactory.createGenerator(generatorType, false);
+                Maze small = generator.generate(7, 9, 5);
+                generator.generate(60, 70, 6);
+                Maze again = generator.generate(7, 9, 5);
+                new PerfectMazeTest().assertSpanningTree(again);
+                assertThat(again.fingerprint()).isEqualTo(small.fingerprint());
+            }
+        }
+    }
+
+    @Nested class BatchTest {
+
+        @Test void deterministicBatchTest() {
+            for (GeneratorFactory.GeneratorType generatorType : GeneratorFactory.GeneratorType.values()) {
+                List<Maze> first = BatchGenerator.generateBatch(generatorType, true, 50, 12, 17, 99);
+                List<Maze> second = BatchGenerator.generateBatch(generatorType, true, 50, 12, 17, 99);
+                assertThat(first).hasSize(50).doesNotContainNull();
+                for (int index = 0; index < first.size(); index++) {
+                    Maze maze = first.get(index);
+                    assertThat(second.get(index).fingerprint()).isEqualTo(maze.fingerprint());
+                    Maze regenerated = GeneratorFactory.createGenerator(generatorType, true)
+                        .generate(12, 17, maze.origin().seed());
+                    assertThat(regenerated.fingerprint()).isEqualTo(maze.fingerprint());
+                }
+            }
+        }
+
+        @Test void consumerTest() {
+            boolean[] consumed = new boolean[300];
+            BatchGenerator.generateBatch(GeneratorFactory.GeneratorType.KRUSKAL, false, 300, 5, 5, 1, (maze, index) -> {
+                assertThat(consumed[index]).isFalse();
+                consumed[index] = true;
+            });
+            for (boolean value : consumed) {
+                assertThat(value).isTrue();
+            }
+            assertThat(BatchGenerator.generateBatch(GeneratorFactory.GeneratorType.EULER, false, 0, 5, 5, 1)).isEmpty();
+        }
+    }
+
+    @Nested class TerrainTest {
+
+        private static final Terrain HILLS = Terrain.noise(
+            Map.of(Cell.Type.PLANE, 4, Cell.Type.SAND, 2, Cell.Type.WATER, 2, Cell.Type.LAVA, 0), 16);
+
+        @Test void terrainDependsOnlyOnSeedTest() {
+            Maze kruskal = GeneratorFactory.createGenerator(GeneratorFactory.GeneratorType.KRUSKAL, false,
+                RandomSource.create(), HILLS).generate(50, 70, 11);
+            for (GeneratorFactory.GeneratorType generatorType : GeneratorFactory.GeneratorType.values()) {
+                Maze maze = GeneratorFactory.createGenerator(generatorType, true, RandomSource.create(), HILLS)
+                    .generate(50, 70, 11);
+                for (int index = 0; index < maze.height() * maze.width(); index++) {
+                    assertThat(maze.typeAt(index)).isEqualTo(kruskal.typeAt(index));
+                }
+            }
+            Maze parallel = GeneratorFactory.createParallelGenerator(GeneratorFactory.GeneratorType.WILSON, false,
+                RandomSource.create(), HILLS, 16, ForkJoinPool.commonPool()).generate(50, 70, 11);
+            new PerfectMazeTest().assertSpanningTree(parallel);
+            for (int index = 0; index < parallel.height() * parallel.width(); index++) {
+                assertThat(parallel.typeAt(index)).isEqualTo(kruskal.typeAt(index));
+            }
+        }
+
+        @Test void weightsTest() {
+            Maze maze = GeneratorFactory.createGenerator(GeneratorFactory.GeneratorType.KRUSKAL, false,
+                RandomSource.create(), HILLS).generate(300, 300, 3);
+            Map<Cell.Type, Integer> counts = new EnumMap<>(Cell.Type.class);
+            for (int index = 0; index < maze.height() * maze.width(); index++) {
+                counts.merge(maze.typeAt(index), 1, Integer::sum);
+            }
+            assertThat(counts).containsOnlyKeys(Cell.Type.PLANE, Cell.Type.SAND, Cell.Type.WATER);
+            assertThat(counts.get(Cell.Type.PLANE)).isGreaterThan(counts.get(Cell.Type.SAND));
+
+            Maze sand = GeneratorFactory.createGenerator(GeneratorFactory.GeneratorType.EULER, false,
+                RandomSource.create(), Terrain.noise(Map.of(Cell.Type.SAND, 1), 4)).generate(20, 20);
+            for (int index = 0; index < sand.height() * sand.width(); index++) {
+                assertThat(sand.typeAt(index)).isEqualTo(Cell.Type.SAND);
+            }
+        }
+
+        @Test void coherenceTest() {
+            Generator noise = GeneratorFactory.createGenerator(GeneratorFactory.GeneratorType.SIDEWINDER, false,
+                RandomSource.create(), HILLS);
+            Generator uniform = GeneratorFactory.createGenerator(GeneratorFactory.GeneratorType.SIDEWINDER, false);
+            assertThat(sameEastNeighbours(noise.generate(200, 200))).isGreaterThan(0.8);
+            assertThat(sameEastNeighbours(uniform.generate(200, 200))).isLessThan(0.2);
+        }
+
+        @Test void streamingTerrainTest() {
+            StreamingGenerator generator =
+                GeneratorFactory.createStreamingGenerator(false, RandomSource.create(), HILLS);
+            Maze maze = generator.generate(30, 45, 5);
+            generator.generate(30, 45, 5, (row, types, east, south) -> {
+                for (int col = 0; col < 45; col++) {
+                    assertThat(types[col]).isEqualTo(maze.typeAt(maze.index(row, col)));
+                }
+            });
+        }
+
+        @Test void invalidTerrainTest() {
+            assertThatThrownBy(() -> Terrain.noise(Map.of(Cell.Type.WALL, 1), 4))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> Terrain.noise(Map.of(Cell.Type.GOLD, -1), 4))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> Terrain.noise(Map.of(Cell.Type.GOLD, 0), 4))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> Terrain.noise(Map.of(Cell.Type.GOLD, 1), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        private static double sameEastNeighbours(Maze maze) {
+            int same = 0;
+            int pairs = 0;
+            for (int row = 0; row < maze.height(); row++) {
+                for (int col = 0; col + 1 < maze.width(); col++) {
+                    pairs++;
+                    if (maze.typeAt(maze.index(row, col)) == maze.typeAt(maze.index(row, col + 1))) {
+                        same++;
+                    }
+                }
+            }
+            return (double) same / pairs;
+        }
+    }
+
+    @Nested class BraidTest {
+
+        @Test void loopsCountTest() {
+            int height = 41;
+            int width = 57;
+            long expected = 2L * (height * width - 1 + Math.round(0.3 * (height - 1) * (width - 1)));
+            for (GeneratorFactory.GeneratorType generatorType : GeneratorFactory.GeneratorType.values()) {
+                Maze maze = GeneratorFactory.createGenerator(generatorType, RandomSource.create(),
+                    Terrain.uniform(), Braid.loops(0.3)).generate(height, width);
+                assertThat(maze.adjacency().edgeCount()).isEqualTo(expected);
+                assertThat(maze.origin().cyclesAllowed()).isTrue();
+            }
+        }
+
+        @Test void deadEndsTest() {
+            for (GeneratorFactory.GeneratorType generatorType : GeneratorFactory.GeneratorType.values()) {
+                Maze perfect = GeneratorFactory.createGenerator(generatorType, RandomSource.create(),
+                    Terrain.uniform(), Braid.none()).generate(60, 60, 8);
+                Maze braided = GeneratorFactory.createGenerator(generatorType, RandomSource.create(),
+                    Terrain.uniform(), Braid.deadEnds(1)).generate(60, 60, 8);
+                assertThat(braided.adjacency().edgeCount()).isGreaterThan(perfect.adjacency().edgeCount());
+                assertThat(deadEnds(braided)).isLessThan(deadEnds(perfect) / 2 + 1);
+            }
+        }
+
+        @Test void streamingBraidTest() {
+            Generator generator = GeneratorFactory.createGenerator(GeneratorFactory.GeneratorType.EULER,
+                RandomSource.create(), Terrain.uniform(), Braid.deadEnds(0.5));
+            Maze maze = generator.generate(25, 30, 4);
+            int[] passages = {0};
+            ((StreamingGenerator) generator).generate(25, 30, 4, (row, types, east, south) -> {
+                for (int col = 0; col < 30; col++) {
+                    int index = maze.index(row, col);
+                    assertThat(east[col]).isEqualTo(col + 1 < 30 && maze.hasEastPassage(index));
+                    assertThat(south[col]).isEqualTo(row + 1 < 25 && maze.hasSouthPassage(index));
+                    passages[0] += (east[col] ? 1 : 0) + (south[col] ? 1 : 0);
+                }
+            });
+            assertThat(2L * passages[0]).isEqualTo(maze.adjacency().edgeCount());
+        }
+
+        @Test void invalidRatioTest() {
+            assertThatThrownBy(() -> Braid.loops(-0.1)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> Braid.deadEnds(1.5)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> Braid.loops(Double.NaN)).isInstanceOf(IllegalArgumentException.class);
+            assertThat(Braid.loops(0).isCycleAllowed()).isFalse();
+        }
+
+        private static int deadEnds(Maze maze) {
+            int count = 0;
+            for (int cell = 0; cell < maze.height() * maze.width(); cell++) {
+                if (maze.adjacency().degree(cell) == 1) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    @Nested class CacheTest {
+
+        @Test void hitTest() {
+            MazeCache cache = MazeCache.create(1 << 20);
+            Generator generator = GeneratorFactory.createCachingGenerator(
+                GeneratorFactory.GeneratorType.WILSON, true, RandomSource.create(), cache);
+            Maze first = generator.generate(30, 40, 77);
+            Maze second = generator.generate(30, 40, 77);
+            assertThat(second).isSameAs(first);
+            Maze expected = GeneratorFactory.createGenerator(GeneratorFactory.GeneratorType.WILSON, true)
+                .generate(30, 40, 77);
+            assertThat(first.fingerprint()).isEqualTo(expected.fingerprint());
+
+            Maze otherType = GeneratorFactory.createCachingGenerator(
+                GeneratorFactory.GeneratorType.KRUSKAL, true, RandomSource.create(), cache).generate(30, 40, 77);
+            assertThat(otherType.fingerprint()).isNotEqualTo(first.fingerprint());
+            assertThat(cache.stats().hitCount()).isEqualTo(1);
+            assertThat(cache.stats().missCount()).isEqualTo(2);
+        }
+
+        @Test void boundedBySizeTest() {
+            MazeCache.Key key = new MazeCache.Key(GeneratorFactory.GeneratorType.EULER, 0, 100, 100, false);
+            MazeCache cache = MazeCache.create(300 * 100 * 100, null, Runnable::run);
+            for (int seed = 0; seed < 200; seed++) {
+                cache.get(new MazeCache.Key(key.type(), seed, key.height(), key.width(), key.cyclesAllowed()));
+            }
+            assertThat(cache.estimatedBytes()).isLessThanOrEqualTo(300 * 100 * 100);
+            assertThat(cache.stats().evictionCount()).isPositive();
+        }
+
+        @Test void refreshTest() throws Exception {
+            MazeCache cache = MazeCache.create(1 << 20, Duration.ofNanos(1), Runnable::run);
+            MazeCache.Key key = new MazeCache.Key(GeneratorFactory.GeneratorType.PRIME_BY_WALL, 5, 20, 20, true);
+            Maze first = cache.getAsync(key).get();
+            Thread.sleep(2);
+            Maze second = cache.get(key);
+            assertThat(second.fingerprint()).isEqualTo(first.fingerprint());
+            assertThat(cache.stats().loadSuccessCount()).isEqualTo(2);
+        }
+
+        @Test void storageIsNotCachedTest() {
+            MazeCache cache = MazeCache.create(1 << 20);
+            Generator generator = GeneratorFactory.createCachingGenerator(
+                GeneratorFactory.GeneratorType.EULER, false, RandomSource.create(), cache);
+            Maze maze = generator.generate(new HeapMazeStorage(10, 10), 3);
+            assertThat(maze.fingerprint()).isEqualTo(generator.generate(10, 10, 3).fingerprint());
+            assertThat(cache.stats().requestCount()).isEqualTo(1);
+            assertThatThrownBy(() -> MazeCache.create(-1)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested class StreamingTest {
+
+        @Test void streamEqualsGenerateTest() {
+            for (boolean cycles : new boolean[] {false, true}) {
+                StreamingGenerator generator = GeneratorFactory.createStreamingGenerator(cycles, RandomSource.create());
+                Maze maze = generator.generate(40, 35);
+                MutableMazeDTO dto = new MutableMazeDTO(40, 35);
+                int[] nextRow = {0};
+                generator.generate(40, 35, maze.origin().seed(), (row, types, east, south) -> {
+                    assertThat(row).isEqualTo(nextRow[0]++);
+                    for (int col = 0; col < 35; col++) {
+                        dto.setType(dto.index(row, col), types[col]);
+                        if (east[col]) {
+                            dto.addPassage(dto.index(row, col), dto.index(row, col + 1));
+                        }
+                        if (south[col]) {
+                            dto.addPassage(dto.index(row, col), dto.index(row + 1, col));
+                        }
+                    }
+                });
+                assertThat(nextRow[0]).isEqualTo(40);
+                assertThat(dto.fingerprint()).isEqualTo(maze.fingerprint());
+            }
+        }
+
+        @Test void tallMazeTest() {
+            StreamingGenerator generator = GeneratorFactory.createStreamingGenerator(false, RandomSource.seeded(7));
+            long[] passages = {0};
+            generator.generate(200_000, 5, (row, types, east, south) -> {
+                for (int col = 0; col < 5; col++) {
+                    passages[0] += (east[col] ? 1 : 0) + (south[col] ? 1 : 0);
+                }
+            });
+            assertThat(passages[0]).isEqualTo(200_000L * 5 - 1);
+        }
+    }
+
+    @Nested class DisjointSetUnionTest {
+
+        @Test void longChainTest() {
+            int size = 1_000_000;
+            DisjointSetUnion disjointSetUnion = new DisjointSetUnion(size);
+            ConcurrentDisjointSetUnion concurrent = new ConcurrentDisjointSetUnion(size);
+            for (int i = 0; i + 1 < size; i++) {
+                disjointSetUnion.union(i, i + 1);
+                concurrent.union(i, i + 1);
+            }
+            assertThat(disjointSetUnion.getRep(0)).isEqualTo(disjointSetUnion.getRep(size - 1));
+            assertThat(concurrent.isSameSet(0, size - 1)).isTrue();
+        }
+
+        @Test void concurrentStressTest() throws Exception {
+            int size = 200_000;
+            int threads = 8;
+            int[][] pairs = new int[threads][];
+            SplittableRandom random = new SplittableRandom(1);
+            for (int thread = 0; thread < threads; thread++) {
+                pairs[thread] = random.ints(size / 2, 0, size).toArray();
+            }
+            DisjointSetUnion expected = new DisjointSetUnion(size);
+            int expectedUnions = 0;
+            for (int[] threadPairs : pairs) {
+                for (int i = 0; i + 1 < threadPairs.length; i += 2) {
+                    if (expected.getRep(threadPairs[i]) != expected.getRep(threadPairs[i + 1])) {
+                        expectedUnions++;
+                    }
+                    expected.union(threadPairs[i], threadPairs[i + 1]);
+                }
+            }
+
+            ConcurrentDisjointSetUnion concurrent = new ConcurrentDisjointSetUnion(size);
+            AtomicInteger unions = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                Future<?>[] futures = new Future<?>[threads];
+                for (int thread = 0; thread < threads; thread++) {
+                    int[] threadPairs = pairs[thread];
+                    futures[thread] = executor.submit(() -> {
+                        for (int i = 0; i + 1 < threadPairs.length; i += 2) {
+                            if (concurrent.union(threadPairs[i], threadPairs[i + 1])) {
+                                unions.incrementAndGet();
+                            }
+                            concurrent.getRep(threadPairs[i]);
+                        }
+                    });
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            assertThat(unions.get()).isEqualTo(expectedUnions);
+            for (int i = 0; i < size; i++) {
+                int other = random.nextInt(size);
+                assertThat(concurrent.isSameSet(i, other))
+                    .isEqualTo(expected.getRep(i) == expected.getRep(other));
+                assertThat(concurrent.isSameSet(i, expected.getRep(i))).isTrue();
+            }
+        }
+    }
+}
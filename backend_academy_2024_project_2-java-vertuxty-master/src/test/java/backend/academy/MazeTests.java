@@ -0,0 +1,441 @@
+package backend.academy;
+
+import backend.academy.generators.GeneratorFactory;
+import backend.academy.mazes.Cell;
+import backend.academy.mazes.Coordinate;
+import backend.academy.mazes.HeapMazeStorage;
+import backend.academy.mazes.Maze;
+import backend.academy.mazes.MazeAdjacency;
+import backend.academy.mazes.MazeFingerprint;
+import backend.academy.mazes.MazeOrigin;
+import backend.academy.mazes.MazeStorage;
+import backend.academy.mazes.MutableMazeDTO;
+import backend.academy.mazes.SegmentMazeStorage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MazeTests {
+
+    @Nested
+    class StorageTest {
+
+        @Test
+        void passagesTest() {
+            MazeStorage storage = new HeapMazeStorage(3, 4);
+            storage.setPassage(storage.index(1, 1), storage.index(1, 2), true);
+            storage.setPassage(storage.index(2, 3), storage.index(1, 3), true);
+
+            assertThat(storage.hasEastPassage(storage.index(1, 1))).isTrue();
+            assertThat(storage.hasSouthPassage(storage.index(1, 3))).isTrue();
+            assertThat(storage.isConnected(storage.index(1, 2), storage.index(1, 1))).isTrue();
+            assertThat(storage.isConnected(storage.index(0, 3), storage.index(1, 0))).isFalse();
+
+            storage.setPassage(storage.index(1, 1), storage.index(1, 2), false);
+            assertThat(storage.isConnected(storage.index(1, 1), storage.index(1, 2))).isFalse();
+            assertThat(storage.hasSouthPassage(storage.index(1, 3))).isTrue();
+        }
+
+        @Test
+        void notNeighboursTest() {
+            MazeStorage storage = new HeapMazeStorage(3, 4);
+            assertThatThrownBy(() -> storage.setPassage(storage.index(0, 3), storage.index(1, 0), true))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> storage.setPassage(0, 2, true))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void typesTest() {
+            MazeStorage storage = new HeapMazeStorage(2, 2);
+            assertThat(storage.type(3)).isEqualTo(Cell.Type.WALL);
+            for (Cell.Type type : Cell.Type.values()) {
+                storage.setType(3, type);
+                assertThat(storage.type(3)).isEqualTo(type);
+            }
+            MazeStorage copy = storage.copy();
+            storage.setType(3, Cell.Type.SAND);
+            assertThat(copy.type(3)).isEqualTo(Cell.Type.LAVA);
+        }
+    }
+
+    @Nested
+    class GraphViewTest {
+
+        @Test
+        void mazeGraphTest() {
+            Cell first = new Cell(new Coordinate(0, 0), Cell.Type.SAND);
+            Cell second = new Cell(new Coordinate(0, 1), Cell.Type.GOLD);
+            Cell third = new Cell(new Coordinate(1, 1), Cell.Type.LAVA);
+            Cell fourth = new Cell(new Coordinate(1, 0), Cell.Type.PLANE);
+            Cell[][] grid = {{first, second}, {fourth, third}};
+            Maze maze = new Maze(Map.of(first, List.of(second), second, List.of(third)), grid);
+
+            assertThat(maze.mazeGraph()).hasSize(4);
+            assertThat(maze.mazeGraph().get(first)).containsExactly(second);
+            assertThat(maze.mazeGraph().get(second)).containsExactlyInAnyOrder(first, third);
+            assertThat(maze.mazeGraph().get(fourth)).isEmpty();
+            assertThat(maze.mazeGraph().get(new Cell(new Coordinate(0, 0), Cell.Type.LAVA))).isNull();
+            assertThat(maze.getGrid()).isDeepEqualTo(grid);
+        }
+
+        @Test
+        void generatedMazeIsConnectedTest() {
+            for (GeneratorFactory.GeneratorType generatorType : GeneratorFactory.GeneratorType.values()) {
+                Maze maze = GeneratorFactory.createGenerator(generatorType, false).generate(20, 30);
+                long passages = maze.mazeGraph().values().stream().mapToLong(List::size).sum() / 2;
+                assertThat(passages).isEqualTo((long) maze.height() * maze.width() - 1);
+            }
+        }
+    }
+
+    @Nested
+    class AccessorsTest {
+
+        @Test
+        void cellAtTest() {
+            Maze maze = GeneratorFactory.createGenerator(GeneratorFactory.GeneratorType.KRUSKAL, true).generate(7, 9);
+            Cell[][] grid = maze.getGrid();
+            for (int row = 0; row < maze.height(); row++) {
+                assertThat(maze.row(row)).containsExactly(grid[row]);
+                for (int col = 0; col < maze.width(); col++) {
+                    int index = maze.index(row, col);
+                    assertThat(maze.cellAt(row, col)).isSameAs(maze.cellAt(index)).isEqualTo(grid[row][col]);
+                    assertThat(maze.typeAt(index)).isEqualTo(grid[row][col].type());
+                    assertThat(maze.weightAt(index)).isEqualTo(grid[row][col].type().weight());
+                }
+            }
+            assertThatThrownBy(() -> maze.row(0).set(0, null)).isInstanceOf(UnsupportedOperationException.class);
+        }
+
+        @Test
+        void concurrentCellAtTest() throws Exception {
+            int threads = 8;
+            for (int attempt = 0; attempt < 20; attempt++) {
+                Maze maze = GeneratorFactory.createGenerator(GeneratorFactory.GeneratorType.EULER, false)
+                    .generate(16, 16);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Cell[]>> futures = new ArrayList<>();
+                try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+                    for (int thread = 0; thread < threads; thread++) {
+                        futures.add(executor.submit(() -> {
+                            start.await();
+                            Cell[] cells = new Cell[maze.height() * maze.width()];
+                            for (int index = 0; index < cells.length; index++) {
+                                cells[index] = maze.cellAt(index);
+                            }
+                            return cells;
+                        }));
+                    }
+                    start.countDown();
+                    Cell[] expected = futures.getFirst().get();
+                    for (Future<Cell[]> future : futures) {
+                        Cell[] cells = future.get();
+                        for (int index = 0; index < cells.length; index++) {
+                            assertThat(cells[index]).isSameAs(expected[index]).isSameAs(maze.cellAt(index));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Nested
+    class AdjacencyTest {
+
+        @Test
+        void adjacencyMatchesGraphTest() {
+            Maze maze = GeneratorFactory.createGenerator(GeneratorFactory.GeneratorType.PRIME_BY_WALL, true)
+                .generate(12, 17);
+            MazeAdjacency adjacency = maze.adjacency();
+            assertThat(maze.adjacency()).isSameAs(adjacency);
+            assertThat(adjacency.size()).isEqualTo(maze.height() * maze.width());
+            for (int index = 0; index < adjacency.size(); index++) {
+                Cell cell = maze.cellAt(index);
+                List<Cell> neighbours = maze.mazeGraph().get(cell);
+                assertThat(adjacency.degree(index)).isEqualTo(neighbours.size());
+                for (int edge = adjacency.offset(index); edge < adjacency.offset(index + 1); edge++) {
+                    Cell target = maze.cellAt(adjacency.target(edge));
+                    assertThat(neighbours).contains(target);
+                    assertThat(adjacency.weight(edge)).isEqualTo(target.type().weight());
+                }
+            }
+        }
+    }
+
+    @Nested
+    class FingerprintTest {
+
+        @ParameterizedTest
+        @EnumSource(GeneratorFactory.GeneratorType.class)
+        void incrementalFingerprintTest(GeneratorFactory.GeneratorType type) {
+            Maze maze = GeneratorFactory.createGenerator(type, true).generate(15, 11);
+            Maze copy = new Maze(maze.mazeGraph(), maze.getGrid());
+            assertThat(copy.fingerprint()).isEqualTo(maze.fingerprint());
+        }
+
+        @Test
+        void fingerprintDependsOnContentTest() {
+            MutableMazeDTO dto = new MutableMazeDTO(3, 3);
+            MazeFingerprint empty = dto.fingerprint();
+            dto.setType(4, Cell.Type.SAND);
+            dto.addPassage(4, 5);
+            MazeFingerprint changed = dto.fingerprint();
+            dto.addPassage(5, 4);
+            assertThat(dto.fingerprint()).isEqualTo(changed);
+            dto.setType(4, Cell.Type.WALL);
+            assertThat(dto.fingerprint()).isNotEqualTo(changed).isNotEqualTo(empty);
+            assertThat(dto.toMaze().fingerprint()).isEqualTo(dto.fingerprint());
+            assertThat(empty).isNotEqualTo(new MutableMazeDTO(1, 9).fingerprint());
+            assertThat(empty.toHexString()).hasSize(32);
+        }
+    }
+
+    @Nested
+    class EditingTest {
+
+        @Test
+        void editCreatesNewVersionTest() {
+            Maze maze = GeneratorFactory.createGenerator(GeneratorFactory.GeneratorType.KRUSKAL, false)
+                .generate(70, 90);
+            Maze before = new Maze(maze.mazeGraph(), maze.getGrid());
+            int index = maze.index(35, 40);
+            Maze sand = maze.withType(index, Cell.Type.SAND);
+            Maze lava = sand.withType(index, Cell.Type.LAVA);
+            Maze opened = lava.withPassage(index, index + maze.width()).withPassage(index, index + 1);
+            Maze closed = opened.withWall(index + 1, index).withWall(index + maze.width(), index);
+
+            assertThat(maze.withType(index, maze.typeAt(index))).isSameAs(maze);
+            assertThat(sand.typeAt(index)).isEqualTo(Cell.Type.SAND);
+            assertThat(lava.typeAt(index)).isEqualTo(Cell.Type.LAVA);
+            assertThat(sand.typeAt(index)).isEqualTo(Cell.Type.SAND);
+            assertThat(opened.hasEastPassage(index)).isTrue();
+            assertThat(opened.hasSouthPassage(index)).isTrue();
+            assertThat(closed.hasEastPassage(index)).isFalse();
+            assertThat(closed.hasSouthPassage(index)).isFalse();
+            for (Maze version : List.of(sand, lava, opened, closed)) {
+                assertThat(version.fingerprint())
+                    .isEqualTo(new Maze(version.mazeGraph(), version.getGrid()).fingerprint());
+            }
+            assertMazeEquals(maze, before);
+        }
+
+        @Test
+        void notNeighboursTest() {
+            Maze maze = new MutableMazeDTO(3, 3).toMaze();
+            assertThatThrownBy(() -> maze.withPassage(2, 3)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> maze.withWall(0, 4)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    class SegmentStorageTest {
+
+        @Test
+        void generateOffHeapTest() {
+            try (Arena arena = Arena.ofConfined()) {
+                for (GeneratorFactory.GeneratorType generatorType : GeneratorFactory.GeneratorType.values()) {
+                    MazeStorage storage = SegmentMazeStorage.allocate(arena, 25, 17);
+                    Maze maze = GeneratorFactory.createGenerator(generatorType, false).generate(storage);
+                    long passages = maze.mazeGraph().values().stream().mapToLong(List::size).sum() / 2;
+                    assertThat(passages).isEqualTo((long) maze.height() * maze.width() - 1);
+                    assertThat(maze.typeAt(0)).isNotEqualTo(Cell.Type.WALL);
+                }
+            }
+        }
+
+        @Test
+        void mapTest(@TempDir Path directory) throws IOException {
+            Path file = directory.resolve("maze.bin");
+            try (Arena arena = Arena.ofConfined()) {
+                MazeStorage storage = SegmentMazeStorage.map(file, arena, 5, 6);
+                storage.setType(storage.index(4, 5), Cell.Type.LAVA);
+                storage.setPassage(storage.index(3, 5), storage.index(4, 5), true);
+            }
+            try (Arena arena = Arena.ofConfined()) {
+                MazeStorage storage = SegmentMazeStorage.map(file, arena, 5, 6);
+                assertThat(storage.type(storage.index(4, 5))).isEqualTo(Cell.Type.LAVA);
+                assertThat(storage.hasSouthPassage(storage.index(3, 5))).isTrue();
+                assertThat(storage.hasEastPassage(storage.index(3, 5))).isFalse();
+                assertThat(storage.copy().type(storage.index(4, 5))).isEqualTo(Cell.Type.LAVA);
+            }
+        }
+    }
+
+    @Nested
+    class BinaryFormatTest {
+
+        @Test
+        void saveLoadTest(@TempDir Path directory) throws IOException {
+            for (GeneratorFactory.GeneratorType generatorType : GeneratorFactory.GeneratorType.values()) {
+                Maze maze = GeneratorFactory.createGenerator(generatorType, true).generate(13, 7);
+                Path file = directory.resolve(generatorType + ".maze");
+                maze.save(file);
+                Maze loaded = Maze.load(file);
+                assertMazeEquals(loaded, maze);
+                assertThat(loaded.origin()).isEqualTo(maze.origin());
+                assertThat(loaded.origin().cyclesAllowed()).isTrue();
+
+                Path copy = directory.resolve(generatorType + ".copy.maze");
+                loaded.save(copy);
+                assertThat(Files.readAllBytes(copy)).isEqualTo(Files.readAllBytes(file));
+            }
+        }
+
+        @Test
+        void wrongFileTest(@TempDir Path directory) throws IOException {
+            Path file = directory.resolve("wrong.maze");
+            Files.write(file, new byte[] {'N', 'O', 'P', 'E'});
+            assertThatThrownBy(() -> Maze.load(file)).isInstanceOf(IOException.class);
+            Files.write(file, new byte[128]);
+            assertThatThrownBy(() -> Maze.load(file)).isInstanceOf(IOException.class);
+            byte[] huge = new byte[128];
+            ByteBuffer.wrap(huge).order(ByteOrder.LITTLE_ENDIAN)
+                .put(new byte[] {'M', 'A', 'Z', 'E'})
+                .putShort(4, (short) 1)
+                .putInt(8, 100_000)
+                .putInt(12, 100_000);
+            Files.write(file, huge);
+            assertThatThrownBy(() -> Maze.load(file)).isInstanceOf(IOException.class);
+        }
+
+        @Test
+        void corruptedPayloadTest(@TempDir Path directory) throws IOException {
+            Cell[][] grid = {
+                {new Cell(new Coordinate(0, 0), Cell.Type.PLANE), new Cell(new Coordinate(0, 1), Cell.Type.SAND)},
+                {new Cell(new Coordinate(1, 0), Cell.Type.GOLD), new Cell(new Coordinate(1, 1), Cell.Type.LAVA)}
+            };
+            Path file = directory.resolve("valid.maze");
+            new Maze(Map.of(), grid).save(file);
+            byte[] valid = Files.readAllBytes(file);
+            int types = 64;
+            int passages = types + 4;
+            int[][] corruptions = {
+                {passages, 1 << 2},
+                {passages, 1 << 5}
+            };
+            Path corruptedFile = directory.resolve("corrupted.maze");
+            for (int[] corruption : corruptions) {
+                byte[] corrupted = valid.clone();
+                corrupted[corruption[0]] |= (byte) corruption[1];
+                Files.write(corruptedFile, corrupted);
+                assertThatThrownBy(() -> Maze.load(corruptedFile)).isInstanceOf(IOException.class);
+            }
+            int[][] typeCorruptions = {
+                {0, Cell.Type.length()},
+                {3, -1}
+            };
+            for (int[] corruption : typeCorruptions) {
+                byte[] corrupted = valid.clone();
+                corrupted[types + corruption[0]] |= (byte) corruption[1];
+                Files.write(corruptedFile, corrupted);
+                Maze maze = Maze.load(corruptedFile);
+                assertThatThrownBy(() -> maze.typeAt(corruption[0])).isInstanceOf(IllegalStateException.class);
+                assertThat(maze.typeAt(1)).isEqualTo(Cell.Type.SAND);
+            }
+        }
+
+        @Test
+        void unknownOriginTest(@TempDir Path directory) throws IOException {
+            Cell cell = new Cell(new Coordinate(0, 0), Cell.Type.GOLD);
+            Maze maze = new Maze(Map.of(), new Cell[][] {{cell}});
+            Path file = directory.resolve("single.maze");
+            maze.save(file);
+            Maze loaded = Maze.load(file);
+            assertThat(loaded.origin()).isEqualTo(MazeOrigin.UNKNOWN);
+            assertThat(loaded.cellAt(0, 0)).isEqualTo(cell);
+        }
+    }
+
+    @Nested
+    class JsonFormatTest {
+
+        @Test
+        void exportImportTest() throws IOException {
+            for (GeneratorFactory.GeneratorType generatorType : GeneratorFactory.GeneratorType.values()) {
+                Maze maze = GeneratorFactory.createGenerator(generatorType, true).generate(11, 14);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                maze.exportJson(out);
+                Maze imported = Maze.importJson(new ByteArrayInputStream(out.toByteArray()));
+                assertMazeEquals(imported, maze);
+                assertThat(imported.origin()).isEqualTo(maze.origin());
+            }
+        }
+
+        @Test
+        void knownJsonTest() throws IOException {
+            String json = """
+                {"version": 1, "height": 2, "width": 3, "rows": [
+                  {"types": "145", "east": [0, 2, 1], "south": [2, 1]},
+                  {"types": "912", "east": [3], "south": [3], "unknown": {"a": [1]}}
+                ]}
+                """;
+            Maze maze = Maze.importJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+            assertThat(maze.origin()).isEqualTo(MazeOrigin.UNKNOWN);
+            assertThat(maze.cellAt(0, 2).type()).isEqualTo(Cell.Type.WATER);
+            assertThat(maze.cellAt(1, 0).type()).isEqualTo(Cell.Type.LAVA);
+            assertThat(maze.hasEastPassage(0, 0)).isTrue();
+            assertThat(maze.hasEastPassage(0, 1)).isTrue();
+            assertThat(maze.hasEastPassage(0, 2)).isFalse();
+            assertThat(maze.hasSouthPassage(0, 1)).isFalse();
+            assertThat(maze.hasSouthPassage(0, 2)).isTrue();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            maze.exportJson(out);
+            assertThat(out.toString(StandardCharsets.UTF_8))
+                .contains("{\"types\":\"145\",\"east\":[0,2,1],\"south\":[2,1]}");
+        }
+
+        @Test
+        void wrongJsonTest() {
+            String[] jsons = {
+                "[]",
+                "{\"rows\": []}",
+                "{\"height\": 1, \"width\": 2, \"rows\": [{\"types\": \"1\"}]}",
+                "{\"height\": 1, \"width\": 2, \"rows\": [{\"east\": [1, 2]}]}",
+                "{\"height\": 2, \"width\": 1, \"rows\": [{\"types\": \"1\"}]}",
+                "{\"height\": 1, \"width\": 1, \"rows\": [{\"types\": \"z\"}]}",
+                "{\"height\": 1, \"width\": 2, \"rows\": [{\"types\": \"11\", \"east\": [1, 1]}]}",
+                "{\"height\": 1, \"width\": 2, \"rows\": [{\"types\": \"11\", \"east\": [0, 2]}]}",
+                "{\"height\": 1, \"width\": 2, \"rows\": [{\"types\": \"11\", \"south\": [1, 1]}]}",
+                "{\"height\": 2, \"width\": 1, \"rows\": [{\"types\": \"1\"}, {\"types\": \"1\", \"south\": [0, 1]}]}"
+            };
+            for (String json : jsons) {
+                assertThatThrownBy(() -> Maze.importJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))))
+                    .isInstanceOf(IOException.class);
+            }
+        }
+    }
+
+    static void assertMazeEquals(Maze actual, Maze expected) {
+        assertThat(actual.height()).isEqualTo(expected.height());
+        assertThat(actual.width()).isEqualTo(expected.width());
+        for (int row = 0; row < expected.height(); row++) {
+            for (int col = 0; col < expected.width(); col++) {
+                assertThat(actual.cellAt(row, col)).isEqualTo(expected.cellAt(row, col));
+                assertThat(actual.hasEastPassage(row, col)).isEqualTo(expected.hasEastPassage(row, col));
+                assertThat(actual.hasSouthPassage(row, col)).isEqualTo(expected.hasSouthPassage(row, col));
+            }
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package backend.academy;
 
+import backend.academy.generators.Braid;
+import backend.academy.generators.GeneratorFactory;
+import backend.academy.generators.RandomSource;
+import backend.academy.generators.Terrain;
 import backend.academy.mazes.Cell;
 import backend.academy.mazes.Coordinate;
 import backend.academy.mazes.Maze;
+import backend.academy.mazes.MazeAdjacency;
 import backend.academy.mazes.MutableMazeDTO;
 import backend.academy.solvers.Solver;
 import backend.academy.solvers.SolverFactory;
@@ -14,6 +19,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -141,6 +147,12 @@ public class SolverTests {
                 for (SolverFactory.SolverEnum solverEnum : SolverFactory.SolverEnum.values()) {
                     Solver solver = SolverFactory.createSolver(solverEnum);
                     List<Coordinate> path = solver.solve(maze, start, end);
+                    int[] indices = solver.solveIndices(maze, maze.index(start.row(), start.col()),
+                        maze.index(end.row(), end.col()));
+                    assertThat(indices).hasSize(path.size());
+                    for (int j = 0; j < indices.length; j++) {
+                        assertThat(maze.index(path.get(j).row(), path.get(j).col())).isEqualTo(indices[j]);
+                    }
                     boolean isFound = path.equals(simplePath) || path.size() == simplePath.size()
                         || path.equals(weightPath) || pathSum(maze, path) == pathSum(maze, weightPath);
                     assertThat(isFound).isTrue();
@@ -148,9 +160,93 @@ public class SolverTests {
             }
         }
 
+        @Test
+        void unreachableTest() {
+            Cell first = new Cell(new Coordinate(0, 0), Cell.Type.PLANE);
+            Cell second = new Cell(new Coordinate(0, 1), Cell.Type.PLANE);
+            Maze maze = new Maze(Map.of(), new Cell[][] {{first, second}});
+            for (SolverFactory.SolverEnum solverEnum : SolverFactory.SolverEnum.values()) {
+                Solver solver = SolverFactory.createSolver(solverEnum);
+                assertThat(solver.solveIndices(maze, 0, 1)).isEmpty();
+                assertThat(solver.solve(maze, first.coordinate(), first.coordinate()))
+                    .containsExactly(first.coordinate());
+            }
+        }
+
         private int pathSum(Maze maze, List<Coordinate> path) {
             return path.stream().map(cord -> maze.getGrid()[cord.row()][cord.col()].type().weight()).reduce(0,
                 Integer::sum);
         }
     }
+
+    @Nested
+    class WeightedMaze {
+        private static final Terrain SWAMPS = Terrain.noise(
+            Map.of(Cell.Type.PLANE, 2, Cell.Type.SAND, 1, Cell.Type.SWAMP, 1, Cell.Type.LAVA, 1), 8);
+
+        @Test
+        void shortestPathTest() {
+            RandomSource random = RandomSource.seeded(24);
+            for (GeneratorFactory.GeneratorType generatorType : GeneratorFactory.GeneratorType.values()) {
+                Maze maze = GeneratorFactory.createGenerator(generatorType, random, SWAMPS, Braid.loops(0.3))
+                    .generate(40, 50);
+                int start = random.nextInt(40 * 50);
+                int end = random.nextInt(40 * 50);
+                int expected = reference(maze, start)[end];
+                for (SolverFactory.SolverEnum solverEnum : SolverFactory.SolverEnum.values()) {
+                    if (solverEnum == SolverFactory.SolverEnum.BFS) {
+                        continue;
+                    }
+                    int[] path = SolverFactory.createSolver(solverEnum).solveIndices(maze, start, end);
+                    assertThat(path[0]).isEqualTo(start);
+                    assertThat(path[path.length - 1]).isEqualTo(end);
+                    assertThat(weight(maze, path)).as(solverEnum + " on " + generatorType).isEqualTo(expected);
+                }
+            }
+        }
+
+        /**
+         * Weights of shortest paths from start by Bellman-Ford algorithm.
+         */
+        private int[] reference(Maze maze, int start) {
+            MazeAdjacency adjacency = maze.adjacency();
+            int[] dist = new int[maze.height() * maze.width()];
+            Arrays.fill(dist, Integer.MAX_VALUE);
+            dist[start] = maze.weightAt(start);
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                for (int v = 0; v < dist.length; v++) {
+                    if (dist[v] == Integer.MAX_VALUE) {
+                        continue;
+                    }
+                    for (int edge = adjacency.offset(v); edge < adjacency.offset(v + 1); edge++) {
+                        int u = adjacency.target(edge);
+                        if (dist[v] + adjacency.weight(edge) < dist[u]) {
+                            dist[u] = dist[v] + adjacency.weight(edge);
+                            changed = true;
+                        }
+                    }
+                }
+            }
+            return dist;
+        }
+
+        /**
+         * Weight of path, every step of it must be a passage.
+         */
+        private int weight(Maze maze, int[] path) {
+            MazeAdjacency adjacency = maze.adjacency();
+            int sum = maze.weightAt(path[0]);
+            for (int i = 1; i < path.length; i++) {
+                boolean passage = false;
+                for (int edge = adjacency.offset(path[i - 1]); edge < adjacency.offset(path[i - 1] + 1); edge++) {
+                    passage |= adjacency.target(edge) == path[i];
+                }
+                assertThat(passage).isTrue();
+                sum += maze.weightAt(path[i]);
+            }
+            return sum;
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package backend.academy.benchmarks;
+
+import backend.academy.generators.ConcurrentDisjointSetUnion;
+import backend.academy.generators.DisjointSetUnion;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare sequential {@link DisjointSetUnion} with {@link ConcurrentDisjointSetUnion}.
+ * Every invocation unions all random pairs in new structure,
+ * concurrent structure is also measured, when pairs are split between several worker threads,
+ * that share one new structure and are joined in invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DisjointSetUnionBenchmark {
+
+    private static final int THREADS = 4;
+
+    @Param({"1000000"})
+    private int size;
+
+    private int[] pairs;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pairs = new SplittableRandom(42).ints(2L * size, 0, size).toArray();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int sequential() {
+        DisjointSetUnion disjointSetUnion = new DisjointSetUnion(size);
+        for (int i = 0; i < pairs.length; i += 2) {
+            disjointSetUnion.union(pairs[i], pairs[i + 1]);
+        }
+        return disjointSetUnion.getRep(0);
+    }
+
+    @Benchmark
+    public int concurrentSingleThread() {
+        ConcurrentDisjointSetUnion disjointSetUnion = new ConcurrentDisjointSetUnion(size);
+        for (int i = 0; i < pairs.length; i += 2) {
+            disjointSetUnion.union(pairs[i], pairs[i + 1]);
+        }
+        return disjointSetUnion.getRep(0);
+    }
+
+    @Benchmark
+    public int concurrentShared() throws InterruptedException, ExecutionException {
+        ConcurrentDisjointSetUnion shared = new ConcurrentDisjointSetUnion(size);
+        int length = pairs.length / (2 * THREADS) * 2;
+        Future<?>[] futures = new Future<?>[THREADS];
+        for (int worker = 0; worker < THREADS; worker++) {
+            int from = worker * length;
+            int to = worker == THREADS - 1 ? pairs.length : from + length;
+            futures[worker] = executor.submit(() -> {
+                for (int i = from; i < to; i += 2) {
+                    shared.union(pairs[i], pairs[i + 1]);
+                }
+            });
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return shared.getRep(0);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DisjointSetUnionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,94 @@
+package backend.academy.benchmarks;
+
+import backend.academy.generators.Generator;
+import backend.academy.generators.GeneratorFactory;
+import backend.academy.generators.RandomSource;
+import backend.academy.mazes.Maze;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare generators of all types on square mazes.
+ * Parallel generator is measured with tiles of every type for different sizes of tiles and pools,
+ * its throughput must grow with parallelism of pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratorBenchmark {
+
+    @Param({"KRUSKAL", "EULER", "PRIME_BY_WALL", "BINARY_TREE", "SIDEWINDER", "WILSON", "GROWING_TREE"})
+    private GeneratorFactory.GeneratorType type;
+
+    @Param({"500"})
+    private int side;
+
+    private Generator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = GeneratorFactory.createGenerator(type, false, RandomSource.seeded(42));
+    }
+
+    @Benchmark
+    public Maze generate() {
+        return generator.generate(side, side);
+    }
+
+    @Benchmark
+    public Maze generateParallel(ParallelState state) {
+        return state.generator.generate(state.parallelSide, state.parallelSide);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @State(Scope.Benchmark)
+    public static class ParallelState {
+
+        @Param({"2000"})
+        private int parallelSide;
+
+        @Param({"64", "256"})
+        private int tileSize;
+
+        @Param({"1", "2", "4"})
+        private int parallelism;
+
+        private ForkJoinPool pool;
+
+        private Generator generator;
+
+        @Setup(Level.Trial)
+        public void setUp(GeneratorBenchmark benchmark) {
+            pool = new ForkJoinPool(parallelism);
+            generator = GeneratorFactory.createParallelGenerator(
+                benchmark.type, false, RandomSource.seeded(42), tileSize, pool);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+}
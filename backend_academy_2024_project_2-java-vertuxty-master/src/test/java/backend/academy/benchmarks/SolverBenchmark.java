@@ -0,0 +1,74 @@
+package backend.academy.benchmarks;
+
+import backend.academy.generators.Braid;
+import backend.academy.generators.GeneratorFactory;
+import backend.academy.generators.RandomSource;
+import backend.academy.generators.Terrain;
+import backend.academy.mazes.Cell;
+import backend.academy.mazes.Maze;
+import backend.academy.solvers.Solver;
+import backend.academy.solvers.SolverFactory;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare weighted solvers on large braided mazes with noise terrain,
+ * path is searched between opposite corners.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+    private static final Terrain TERRAIN = Terrain.noise(Map.of(
+        Cell.Type.PLANE, 4, Cell.Type.GOLD, 1, Cell.Type.SAND, 2, Cell.Type.WATER, 2,
+        Cell.Type.SWAMP, 1, Cell.Type.LAVA, 1), 32);
+
+    @Param({"ASTAR", "DIJKSTRA", "DIAL"})
+    private SolverFactory.SolverEnum type;
+
+    @Param({"1000"})
+    private int side;
+
+    @Param({"0.0", "0.3"})
+    private double loops;
+
+    private Solver solver;
+
+    private Maze maze;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        solver = SolverFactory.createSolver(type);
+        maze = GeneratorFactory.createGenerator(
+            GeneratorFactory.GeneratorType.KRUSKAL, RandomSource.seeded(42), TERRAIN, Braid.loops(loops)
+        ).generate(side, side);
+    }
+
+    @Benchmark
+    public int[] solve() {
+        return solver.solveIndices(maze, 0, side * side - 1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SolverBenchmark.class.getSimpleName()).build()).run();
+    }
+}